@@ -0,0 +1,51 @@
+package com.alquimiasoft.minegocio.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Expone el motor de base de datos en uso para activar funciones propias de
+ * PostgreSQL (tsvector, pg_trgm) que no existen en H2.
+ */
+@Component
+public class BaseDatosInfo {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaseDatosInfo.class);
+
+    private final DataSource dataSource;
+
+    private volatile Boolean postgreSql;
+
+    public BaseDatosInfo(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Indica si la base de datos es PostgreSQL (se consulta una sola vez)
+     */
+    public boolean isPostgreSql() {
+        Boolean resultado = postgreSql;
+        if (resultado == null) {
+            resultado = detectarPostgreSql();
+            postgreSql = resultado;
+        }
+        return resultado;
+    }
+
+    private boolean detectarPostgreSql() {
+        try {
+            String producto = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            logger.info("Base de datos detectada: {}", producto);
+            return "PostgreSQL".equalsIgnoreCase(producto);
+        } catch (MetaDataAccessException e) {
+            logger.warn("No se pudo detectar el motor de base de datos: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Total-Count", "X-Total-Pages", "X-Page", "X-Page-Size") // Paginación de /buscar
                 .allowCredentials(true)
                 .maxAge(3600); // Cache por 1 hora
     }
@@ -0,0 +1,79 @@
+package com.alquimiasoft.minegocio.config.liquibase;
+
+import com.alquimiasoft.minegocio.util.ClaveFonetica;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Genera las claves fonéticas de los clientes existentes (changeset 019) con el
+ * mismo codificador que usa la entidad Cliente.
+ */
+public class GenerarClavesFoneticas implements CustomTaskChange {
+
+    private static final int TAMANO_LOTE = 1000;
+    private static final int FILAS_POR_LECTURA = 5000;
+
+    private int clientes;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection conexion = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (Statement consulta = conexion.createStatement();
+             PreparedStatement insercion = conexion.prepareStatement(
+                     "INSERT INTO cliente_clave_fonetica (cliente_id, clave) VALUES (?, ?)")) {
+            // Lectura por bloques para no cargar toda la tabla en memoria
+            consulta.setFetchSize(FILAS_POR_LECTURA);
+            int enLote = 0;
+            try (ResultSet filas = consulta.executeQuery("SELECT id, nombres FROM cliente")) {
+                while (filas.next()) {
+                    long clienteId = filas.getLong("id");
+                    for (String clave : ClaveFonetica.claves(filas.getString("nombres"))) {
+                        insercion.setLong(1, clienteId);
+                        insercion.setString(2, clave);
+                        insercion.addBatch();
+                        if (++enLote == TAMANO_LOTE) {
+                            insercion.executeBatch();
+                            enLote = 0;
+                        }
+                    }
+                    clientes++;
+                }
+            }
+            if (enLote > 0) {
+                insercion.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("No se pudo generar las claves fonéticas de clientes", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Claves fonéticas generadas para " + clientes + " clientes";
+    }
+
+    @Override
+    public void setUp() {
+        // Sin configuración
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No usa archivos
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,90 @@
+package com.alquimiasoft.minegocio.config.liquibase;
+
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Llena cliente.nombres_normalizados para los clientes existentes (changeset 017).
+ * Se hace en Java para usar exactamente la misma normalización que la entidad
+ * Cliente y que las búsquedas (TextoBusqueda.normalizar).
+ */
+public class NormalizarNombresClientes implements CustomTaskChange {
+
+    private static final int TAMANO_LOTE = 500;
+    private static final int FILAS_POR_LECTURA = 5000;
+
+    private int actualizados;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection conexion = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            boolean autoCommit = conexion.getAutoCommit();
+            // PostgreSQL solo respeta el fetch size con autocommit desactivado
+            conexion.setAutoCommit(false);
+            try {
+                normalizar(conexion);
+            } finally {
+                conexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("No se pudo normalizar los nombres de clientes", e);
+        }
+    }
+
+    private void normalizar(Connection conexion) throws SQLException {
+        try (Statement consulta = conexion.createStatement();
+             PreparedStatement actualizacion = conexion.prepareStatement(
+                     "UPDATE cliente SET nombres_normalizados = ? WHERE id = ?")) {
+            // Lectura por bloques para no cargar toda la tabla en memoria
+            consulta.setFetchSize(FILAS_POR_LECTURA);
+            int enLote = 0;
+            try (ResultSet filas = consulta.executeQuery("SELECT id, nombres FROM cliente")) {
+                while (filas.next()) {
+                    actualizacion.setString(1, TextoBusqueda.normalizar(filas.getString("nombres")));
+                    actualizacion.setLong(2, filas.getLong("id"));
+                    actualizacion.addBatch();
+                    actualizados++;
+                    if (++enLote == TAMANO_LOTE) {
+                        actualizacion.executeBatch();
+                        enLote = 0;
+                    }
+                }
+            }
+            if (enLote > 0) {
+                actualizacion.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Nombres normalizados para " + actualizados + " clientes";
+    }
+
+    @Override
+    public void setUp() {
+        // Sin configuración
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No usa archivos
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
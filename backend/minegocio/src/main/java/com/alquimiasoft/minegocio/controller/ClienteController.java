@@ -4,28 +4,58 @@ import com.alquimiasoft.minegocio.dto.*;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.dto.cliente.ImportacionClientesResponse;
+import com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionLoteRequest;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionResponse;
 import com.alquimiasoft.minegocio.entity.Cliente;
 import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.exception.BusinessException;
 import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
 import com.alquimiasoft.minegocio.service.ClienteService;
+import com.alquimiasoft.minegocio.service.busqueda.ModoBusqueda;
 import com.alquimiasoft.minegocio.service.DireccionService;
+import com.alquimiasoft.minegocio.service.cache.CacheDetalleClientes;
+import com.alquimiasoft.minegocio.service.cache.CoalescedorLecturas;
+import com.alquimiasoft.minegocio.service.exportacion.ExportadorClientes;
+import com.alquimiasoft.minegocio.service.exportacion.FormatoExportacion;
+import com.alquimiasoft.minegocio.service.importacion.ImportadorClientes;
+import com.alquimiasoft.minegocio.service.importacion.LectorClientes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Controlador REST para la gestión de clientes y direcciones
+ *
+ * Las lecturas GET de un cliente, sus direcciones y la búsqueda pasan por
+ * CoalescedorLecturas: peticiones idénticas simultáneas comparten una sola consulta.
  */
 @RestController
 @RequestMapping("/api/clientes")
@@ -34,6 +64,15 @@ public class ClienteController {
 
     private static final Logger logger = LoggerFactory.getLogger(ClienteController.class);
 
+    static final String HEADER_TOTAL = "X-Total-Count";
+    static final String HEADER_TOTAL_PAGINAS = "X-Total-Pages";
+    static final String HEADER_PAGINA = "X-Page";
+    static final String HEADER_TAMANO_PAGINA = "X-Page-Size";
+
+    static final String TEXT_CSV = "text/csv";
+
+    private static final String MENSAJE_CLIENTE_OBTENIDO = "Cliente obtenido exitosamente";
+
     @Autowired
     private ClienteService clienteService;
 
@@ -43,25 +82,73 @@ public class ClienteController {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ImportadorClientes importadorClientes;
+
+    @Autowired
+    private ExportadorClientes exportadorClientes;
+
+    @Autowired
+    private CoalescedorLecturas coalescedor;
+
+    @Autowired
+    private CacheDetalleClientes cacheDetalle;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiResponseSerializada respuestaClienteObtenido;
+
+    @PostConstruct
+    void prepararRespuestas() {
+        respuestaClienteObtenido = new ApiResponseSerializada(objectMapper, MENSAJE_CLIENTE_OBTENIDO);
+    }
+
     /**
      * API REST para buscar clientes por número de identificación o nombre
-     * GET /api/clientes/buscar?empresaId=1&busqueda=texto
+     * GET /api/clientes/buscar?empresaId=1&busqueda=texto&page=0&size=20&sort=nombres,asc
+     *
+     * Sin sort los resultados vienen ordenados por relevancia. El total y la
+     * paginación se devuelven en las cabeceras X-Total-Count, X-Total-Pages,
+     * X-Page y X-Page-Size.
+     *
+     * Con modo=fulltext también se busca en la dirección matriz (ciudad, provincia,
+     * dirección), p. ej. busqueda=cliente de Cuenca; en este modo no se admite sort.
+     * Con modo=fonetico se encuentran nombres que suenan igual aunque estén mal
+     * escritos (busqueda=Jimena Gonzales encuentra "Ximena González").
      */
     @GetMapping("/buscar")
     public ResponseEntity<ApiResponse<List<ClienteResponse>>> buscarClientes(
             @RequestParam Long empresaId,
-            @RequestParam(required = false) String busqueda) {
+            @RequestParam(required = false) String busqueda,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ClienteService.TAMANO_PAGINA_BUSQUEDA) int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String modo) {
         
-        logger.info("API: Buscar clientes - Empresa: {}, Búsqueda: {}", empresaId, busqueda);
+        logger.info("API: Buscar clientes - Empresa: {}, Búsqueda: {}, Página: {}, Modo: {}", empresaId, busqueda, page, modo);
 
         try {
-            List<ClienteResponse> clientes = clienteService.buscarClientes(empresaId, busqueda);
+            ModoBusqueda modoBusqueda = ModoBusqueda.desde(modo);
+            Pageable pagina = PageRequest.of(Math.max(page, 0), Math.max(size, 1), crearOrden(sort));
+            Page<ClienteResponse> clientes = coalescedor.ejecutar("buscar",
+                    () -> clienteService.buscarClientes(empresaId, busqueda, modoBusqueda, pagina),
+                    empresaId, busqueda, modoBusqueda, pagina);
             
             String mensaje = busqueda != null && !busqueda.trim().isEmpty() 
-                ? String.format("Se encontraron %d clientes que coinciden con '%s'", clientes.size(), busqueda)
-                : String.format("Se encontraron %d clientes en total", clientes.size());
+                ? String.format("Se encontraron %d clientes que coinciden con '%s'", clientes.getTotalElements(), busqueda)
+                : String.format("Se encontraron %d clientes en total", clientes.getTotalElements());
 
-            return ResponseEntity.ok(ApiResponse.success(mensaje, clientes));
+            return ResponseEntity.ok()
+                    .header(HEADER_TOTAL, String.valueOf(clientes.getTotalElements()))
+                    .header(HEADER_TOTAL_PAGINAS, String.valueOf(clientes.getTotalPages()))
+                    .header(HEADER_PAGINA, String.valueOf(clientes.getNumber()))
+                    .header(HEADER_TAMANO_PAGINA, String.valueOf(clientes.getSize()))
+                    .body(ApiResponse.success(mensaje, clientes.getContent()));
+        } catch (BusinessException e) {
+            logger.warn("Búsqueda de clientes rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error al buscar clientes: " + e.getMessage()));
         } catch (Exception e) {
             logger.error("Error al buscar clientes", e);
             return ResponseEntity.internalServerError()
@@ -69,6 +156,77 @@ public class ClienteController {
         }
     }
 
+    /**
+     * Convierte "campo" o "campo,desc" en un Sort; vacío si no se indica
+     */
+    private static Sort crearOrden(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.unsorted();
+        }
+        String[] partes = sort.split(",");
+        Sort.Direction direccion = partes.length > 1
+                ? Sort.Direction.fromOptionalString(partes[1].trim()).orElse(Sort.Direction.ASC)
+                : Sort.Direction.ASC;
+        String campo = partes[0].trim();
+        // El ID desempata para que las páginas sean estables
+        return "id".equals(campo) ? Sort.by(direccion, campo) : Sort.by(direccion, campo).and(Sort.by("id"));
+    }
+
+    /**
+     * API REST para recorrer los clientes de una empresa por cursor (scroll infinito)
+     * GET /api/clientes?empresaId=1&cursor=...&size=20&orden=nombres&incluirTotal=false
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<PaginaCursorResponse<ClienteResponse>>> listarClientes(
+            @RequestParam Long empresaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ClienteService.TAMANO_PAGINA_BUSQUEDA) int size,
+            @RequestParam(required = false) String orden,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        logger.info("API: Listar clientes por cursor - Empresa: {}, Orden: {}", empresaId, orden);
+
+        try {
+            PaginaCursorResponse<ClienteResponse> pagina =
+                    clienteService.obtenerClientesPorCursor(empresaId, cursor, size, orden, incluirTotal);
+
+            return ResponseEntity.ok(ApiResponse.success(
+                    String.format("%d clientes", pagina.getContenido().size()), pagina));
+        } catch (BusinessException e) {
+            logger.warn("Listado de clientes rechazado: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error al listar clientes: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error al listar clientes", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Error al listar clientes: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API REST para autocompletar clientes por prefijo de nombre o identificación
+     * GET /api/clientes/sugerencias?empresaId=1&prefijo=jua&limite=10
+     */
+    @GetMapping("/sugerencias")
+    public ResponseEntity<ApiResponse<List<SugerenciaResponse>>> sugerirClientes(
+            @RequestParam Long empresaId,
+            @RequestParam String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        logger.debug("API: Sugerencias de clientes - Empresa: {}, Prefijo: {}", empresaId, prefijo);
+
+        try {
+            List<SugerenciaResponse> sugerencias = clienteService.sugerirClientes(empresaId, prefijo, limite);
+
+            return ResponseEntity.ok(ApiResponse.success(
+                    String.format("%d sugerencias", sugerencias.size()), sugerencias));
+        } catch (Exception e) {
+            logger.error("Error al obtener sugerencias de clientes", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Error al obtener sugerencias: " + e.getMessage()));
+        }
+    }
+
     /**
      * API REST para crear un nuevo cliente con dirección matriz
      * POST /api/clientes
@@ -90,6 +248,117 @@ public class ClienteController {
         }
     }
 
+    /**
+     * API REST para verificar muchas identificaciones de una vez
+     * POST /api/clientes/identificaciones/existentes?empresaId=1
+     *
+     * Recibe una lista de {tipoIdentificacion, numeroIdentificacion} y devuelve
+     * las que ya están registradas en la empresa.
+     */
+    @PostMapping("/identificaciones/existentes")
+    public ResponseEntity<ApiResponse<List<IdentificacionCliente>>> buscarIdentificacionesExistentes(
+            @RequestParam Long empresaId,
+            @RequestBody List<@Valid IdentificacionCliente> identificaciones) {
+
+        logger.debug("API: Verificar identificaciones - Empresa: {}, Cantidad: {}",
+                empresaId, identificaciones.size());
+
+        try {
+            List<IdentificacionCliente> existentes =
+                    clienteService.buscarIdentificacionesExistentes(empresaId, identificaciones);
+
+            return ResponseEntity.ok(ApiResponse.success(
+                    String.format("%d de %d identificaciones ya existen", existentes.size(), identificaciones.size()),
+                    existentes));
+        } catch (Exception e) {
+            logger.error("Error al verificar identificaciones", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Error al verificar identificaciones: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API REST para importar clientes de forma masiva con su dirección matriz
+     * POST /api/clientes/importar?empresaId=1
+     *
+     * Acepta un arreglo JSON de clientes (como en POST /api/clientes) o un CSV con
+     * cabecera (tipoIdentificacion, numeroIdentificacion, nombres, correo, celular,
+     * provincia, ciudad, direccion). El cuerpo se lee en streaming y se guarda por
+     * lotes; la respuesta informa los errores por fila y las filas por segundo.
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<ImportacionClientesResponse>> importarClientesJson(
+            @RequestParam Long empresaId, InputStream cuerpo) {
+        return importarClientes(empresaId, () -> LectorClientes.json(objectMapper, cuerpo));
+    }
+
+    @PostMapping(value = "/importar", consumes = TEXT_CSV)
+    public ResponseEntity<ApiResponse<ImportacionClientesResponse>> importarClientesCsv(
+            @RequestParam Long empresaId, InputStream cuerpo) {
+        return importarClientes(empresaId, () -> LectorClientes.csv(cuerpo));
+    }
+
+    private ResponseEntity<ApiResponse<ImportacionClientesResponse>> importarClientes(
+            Long empresaId, AperturaLector apertura) {
+
+        logger.info("API: Importar clientes - Empresa: {}", empresaId);
+
+        try (LectorClientes lector = apertura.abrir()) {
+            ImportacionClientesResponse resultado = importadorClientes.importar(empresaId, lector);
+            String mensaje = String.format("Se importaron %d clientes; %d filas rechazadas",
+                    resultado.getImportados(), resultado.getRechazados());
+
+            return ResponseEntity.ok(ApiResponse.success(mensaje, resultado));
+        } catch (Exception e) {
+            logger.error("Error al importar clientes", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Error al importar clientes: " + e.getMessage()));
+        }
+    }
+
+    @FunctionalInterface
+    private interface AperturaLector {
+        LectorClientes abrir() throws IOException;
+    }
+
+    /**
+     * API REST para exportar todos los clientes de una empresa con sus direcciones
+     * GET /api/clientes/exportar?empresaId=1&formato=csv|ndjson
+     *
+     * El archivo se escribe directo en la respuesta mientras se lee de la base de
+     * datos (devuelve null). Si falla a mitad de la descarga la conexión se corta
+     * para que el cliente no tome el archivo incompleto como terminado.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<ApiResponse<Void>> exportarClientes(@RequestParam Long empresaId,
+                                                              @RequestParam(required = false) String formato,
+                                                              HttpServletResponse response) {
+
+        logger.info("API: Exportar clientes - Empresa: {}, Formato: {}", empresaId, formato);
+
+        try {
+            FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+            response.setContentType(formatoExportacion.getTipoContenido());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("clientes-" + empresaId + "." + formatoExportacion.getExtension())
+                    .build().toString());
+
+            exportadorClientes.exportar(empresaId, formatoExportacion, response.getOutputStream());
+            return null;
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error al exportar clientes", e);
+            if (response.isCommitted()) {
+                throw new IllegalStateException("Exportación interrumpida", e);
+            }
+            response.reset();
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Error al exportar clientes: " + e.getMessage()));
+        }
+    }
+
     /**
      * API REST para actualizar los datos de un cliente
      */
@@ -130,18 +399,49 @@ public class ClienteController {
         }
     }
 
+    /**
+     * API REST para eliminar varios clientes con sus direcciones.
+     * Si alguno no existe no se elimina ninguno.
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> eliminarClientes(@RequestBody List<Long> ids) {
+
+        logger.info("API: Eliminar {} clientes en lote", ids.size());
+
+        try {
+            int eliminados = clienteService.eliminarClientes(ids);
+
+            return ResponseEntity.ok(ApiResponse.success(String.format("Se eliminaron %d clientes", eliminados)));
+        } catch (Exception e) {
+            logger.error("Error al eliminar clientes en lote", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error al eliminar clientes: " + e.getMessage()));
+        }
+    }
+
     /**
      * API REST para obtener un cliente por ID con todas sus direcciones
+     *
+     * Con minegocio.clientes.detalle-serializado.habilitado el JSON del cliente sale
+     * de CacheDetalleClientes y se escribe directo en la respuesta (devuelve null).
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ClienteResponse>> obtenerCliente(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<ClienteResponse>> obtenerCliente(@PathVariable Long id,
+                                                                       HttpServletResponse response) {
         
         logger.info("API: Obtener cliente ID: {}", id);
 
         try {
-            ClienteResponse cliente = clienteService.obtenerClientePorId(id);
+            if (cacheDetalle.isHabilitado()) {
+                byte[] data = cacheDetalle.obtener(id, () -> serializar(clienteService.obtenerClientePorId(id)));
+                respuestaClienteObtenido.escribir(response, data);
+                return null;
+            }
+
+            ClienteResponse cliente = coalescedor.ejecutar("cliente",
+                    () -> clienteService.obtenerClientePorId(id), id);
             
-            return ResponseEntity.ok(ApiResponse.success("Cliente obtenido exitosamente", cliente));
+            return ResponseEntity.ok(ApiResponse.success(MENSAJE_CLIENTE_OBTENIDO, cliente));
         } catch (Exception e) {
             logger.error("Error al obtener cliente", e);
             return ResponseEntity.badRequest()
@@ -149,6 +449,14 @@ public class ClienteController {
         }
     }
 
+    private byte[] serializar(ClienteResponse cliente) {
+        try {
+            return objectMapper.writeValueAsBytes(cliente);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * API REST para debug - obtener cliente por ID con información detallada
      */
@@ -205,6 +513,54 @@ public class ClienteController {
         }
     }
 
+    /**
+     * API REST para registrar varias direcciones de un cliente en una sola transacción
+     * POST /api/clientes/{clienteId}/direcciones/lote
+     *
+     * Con nuevaMatriz (posición en la lista) esa dirección reemplaza a la matriz
+     * actual, que queda como adicional.
+     */
+    @PostMapping("/{clienteId}/direcciones/lote")
+    public ResponseEntity<ApiResponse<List<DireccionResponse>>> crearDireccionesEnLote(
+            @PathVariable Long clienteId,
+            @Valid @RequestBody DireccionLoteRequest request) {
+
+        logger.info("API: Crear {} direcciones en lote para cliente ID: {}", request.getDirecciones().size(), clienteId);
+
+        try {
+            List<DireccionResponse> direcciones = direccionService.crearDireccionesEnLote(clienteId, request);
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(String.format("Se crearon %d direcciones", direcciones.size()), direcciones));
+        } catch (Exception e) {
+            logger.error("Error al crear direcciones en lote", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error al crear direcciones: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API REST para eliminar varias direcciones adicionales de un cliente
+     * DELETE /api/clientes/{clienteId}/direcciones/lote con la lista de IDs en el cuerpo
+     */
+    @DeleteMapping("/{clienteId}/direcciones/lote")
+    public ResponseEntity<ApiResponse<Void>> eliminarDireccionesEnLote(
+            @PathVariable Long clienteId,
+            @RequestBody List<Long> direccionIds) {
+
+        logger.info("API: Eliminar {} direcciones en lote del cliente ID: {}", direccionIds.size(), clienteId);
+
+        try {
+            int eliminadas = direccionService.eliminarDireccionesEnLote(clienteId, direccionIds);
+
+            return ResponseEntity.ok(ApiResponse.success(String.format("Se eliminaron %d direcciones", eliminadas)));
+        } catch (Exception e) {
+            logger.error("Error al eliminar direcciones en lote", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error al eliminar direcciones: " + e.getMessage()));
+        }
+    }
+
     /**
      * API REST para listar todas las direcciones de un cliente (matriz + adicionales)
      */
@@ -214,7 +570,8 @@ public class ClienteController {
         logger.info("API: Listar direcciones del cliente ID: {}", clienteId);
 
         try {
-            List<DireccionResponse> direcciones = direccionService.obtenerDireccionesPorCliente(clienteId);
+            List<DireccionResponse> direcciones = coalescedor.ejecutar("direcciones",
+                    () -> direccionService.obtenerDireccionesPorCliente(clienteId), clienteId);
             
             String mensaje = String.format("Se encontraron %d direcciones para el cliente", direcciones.size());
             return ResponseEntity.ok(ApiResponse.success(mensaje, direcciones));
@@ -234,7 +591,8 @@ public class ClienteController {
         logger.info("API: Listar direcciones adicionales del cliente ID: {}", clienteId);
 
         try {
-            List<DireccionResponse> direcciones = direccionService.obtenerDireccionesAdicionales(clienteId);
+            List<DireccionResponse> direcciones = coalescedor.ejecutar("direcciones.adicionales",
+                    () -> direccionService.obtenerDireccionesAdicionales(clienteId), clienteId);
             
             String mensaje = String.format("Se encontraron %d direcciones adicionales para el cliente", direcciones.size());
             return ResponseEntity.ok(ApiResponse.success(mensaje, direcciones));
@@ -254,7 +612,8 @@ public class ClienteController {
         logger.info("API: Obtener dirección matriz del cliente ID: {}", clienteId);
 
         try {
-            DireccionResponse direccion = direccionService.obtenerDireccionMatriz(clienteId);
+            DireccionResponse direccion = coalescedor.ejecutar("direcciones.matriz",
+                    () -> direccionService.obtenerDireccionMatriz(clienteId), clienteId);
             
             return ResponseEntity.ok(ApiResponse.success("Dirección matriz obtenida exitosamente", direccion));
         } catch (Exception e) {
@@ -0,0 +1,53 @@
+package com.alquimiasoft.minegocio.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Sobre de una ApiResponse exitosa alrededor de un data ya serializado.
+ *
+ * Escribe los mismos campos y en el mismo orden que Jackson para ApiResponse
+ * (success, message, data, timestamp), pero solo serializa el timestamp en cada
+ * respuesta: el prefijo con el mensaje se calcula una vez.
+ */
+public class ApiResponseSerializada {
+
+    private static final byte[] CAMPO_TIMESTAMP = ",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final byte[] prefijo;
+
+    public ApiResponseSerializada(ObjectMapper objectMapper, String mensaje) {
+        this.objectMapper = objectMapper;
+        try {
+            this.prefijo = ("{\"success\":true,\"message\":" + objectMapper.writeValueAsString(mensaje) + ",\"data\":")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Mensaje no serializable: " + mensaje, e);
+        }
+    }
+
+    /**
+     * Escribe la respuesta completa (200, application/json) en la respuesta HTTP
+     * @param data JSON del campo data
+     */
+    public void escribir(HttpServletResponse response, byte[] data) throws IOException {
+        byte[] timestamp = objectMapper.writeValueAsBytes(LocalDateTime.now());
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(prefijo.length + data.length + CAMPO_TIMESTAMP.length + timestamp.length + 1);
+        OutputStream salida = response.getOutputStream();
+        salida.write(prefijo);
+        salida.write(data);
+        salida.write(CAMPO_TIMESTAMP);
+        salida.write(timestamp);
+        salida.write('}');
+    }
+}
@@ -0,0 +1,72 @@
+package com.alquimiasoft.minegocio.dto;
+
+import java.util.List;
+
+/**
+ * DTO para una página obtenida por cursor (keyset)
+ */
+public class PaginaCursorResponse<T> {
+
+    private List<T> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+    private Long total;
+
+    // Constructores
+    public PaginaCursorResponse() {}
+
+    public PaginaCursorResponse(List<T> contenido, String siguienteCursor, Long total) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = siguienteCursor != null;
+        this.total = total;
+    }
+
+    // Getters y Setters
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    /**
+     * Cursor para pedir la página siguiente; null si no hay más resultados
+     */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Total de clientes de la empresa; null si no se pidió contarlos
+     */
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    @Override
+    public String toString() {
+        return "PaginaCursorResponse{" +
+                "elementos=" + (contenido != null ? contenido.size() : 0) +
+                ", siguienteCursor='" + siguienteCursor + '\'' +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -36,6 +36,21 @@ public class ClienteResponse {
         this.creadoEn = creadoEn;
     }
 
+    /**
+     * Constructor para proyecciones JPQL (SELECT new ...) con la matriz aplanada.
+     * Si el cliente no tiene matriz, el LEFT JOIN entrega matrizId nulo.
+     */
+    public ClienteResponse(Long id, Long empresaId, String tipoIdentificacion, String numeroIdentificacion,
+                          String nombres, String correo, String celular, LocalDateTime creadoEn,
+                          Long matrizId, String matrizProvincia, String matrizCiudad,
+                          String matrizDireccion, LocalDateTime matrizCreadoEn) {
+        this(id, empresaId, tipoIdentificacion, numeroIdentificacion, nombres, correo, celular, creadoEn);
+        if (matrizId != null) {
+            this.direccionMatriz = new DireccionResponse(matrizId, matrizProvincia, matrizCiudad,
+                    matrizDireccion, true, matrizCreadoEn);
+        }
+    }
+
     // Getters y Setters
     public Long getId() {
         return id;
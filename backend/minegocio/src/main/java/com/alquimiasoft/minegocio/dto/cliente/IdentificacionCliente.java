@@ -0,0 +1,60 @@
+package com.alquimiasoft.minegocio.dto.cliente;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Objects;
+
+/**
+ * DTO con el tipo y número de identificación de un cliente (clave única dentro de la empresa)
+ */
+public class IdentificacionCliente {
+
+    @NotBlank(message = "El tipo de identificación es obligatorio")
+    private String tipoIdentificacion;
+
+    @NotBlank(message = "El número de identificación es obligatorio")
+    private String numeroIdentificacion;
+
+    // Constructores
+    public IdentificacionCliente() {}
+
+    public IdentificacionCliente(String tipoIdentificacion, String numeroIdentificacion) {
+        this.tipoIdentificacion = tipoIdentificacion;
+        this.numeroIdentificacion = numeroIdentificacion;
+    }
+
+    // Getters y Setters
+    public String getTipoIdentificacion() {
+        return tipoIdentificacion;
+    }
+
+    public void setTipoIdentificacion(String tipoIdentificacion) {
+        this.tipoIdentificacion = tipoIdentificacion;
+    }
+
+    public String getNumeroIdentificacion() {
+        return numeroIdentificacion;
+    }
+
+    public void setNumeroIdentificacion(String numeroIdentificacion) {
+        this.numeroIdentificacion = numeroIdentificacion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IdentificacionCliente otra)) return false;
+        return Objects.equals(tipoIdentificacion, otra.tipoIdentificacion)
+                && Objects.equals(numeroIdentificacion, otra.numeroIdentificacion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipoIdentificacion, numeroIdentificacion);
+    }
+
+    @Override
+    public String toString() {
+        return tipoIdentificacion + " " + numeroIdentificacion;
+    }
+}
@@ -0,0 +1,130 @@
+package com.alquimiasoft.minegocio.dto.cliente;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado de una importación masiva de clientes
+ */
+public class ImportacionClientesResponse {
+
+    private long filas;
+    private long importados;
+    private long rechazados;
+    private boolean interrumpida;
+    private long duracionMs;
+    private double filasPorSegundo;
+    private List<ErrorFila> errores = new ArrayList<>();
+
+    // Constructores
+    public ImportacionClientesResponse() {}
+
+    // Getters y Setters
+    /**
+     * Filas leídas del archivo
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    public void setFilas(long filas) {
+        this.filas = filas;
+    }
+
+    public long getImportados() {
+        return importados;
+    }
+
+    public void setImportados(long importados) {
+        this.importados = importados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public void setRechazados(long rechazados) {
+        this.rechazados = rechazados;
+    }
+
+    /**
+     * true si el archivo no se pudo leer hasta el final (p. ej. JSON mal formado)
+     */
+    public boolean isInterrumpida() {
+        return interrumpida;
+    }
+
+    public void setInterrumpida(boolean interrumpida) {
+        this.interrumpida = interrumpida;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public double getFilasPorSegundo() {
+        return filasPorSegundo;
+    }
+
+    public void setFilasPorSegundo(double filasPorSegundo) {
+        this.filasPorSegundo = filasPorSegundo;
+    }
+
+    /**
+     * Errores por fila; se devuelven como máximo los primeros configurados,
+     * rechazados sigue contando todos
+     */
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorFila> errores) {
+        this.errores = errores;
+    }
+
+    /**
+     * Error de una fila del archivo (numeradas desde 1, sin contar la cabecera)
+     */
+    public static class ErrorFila {
+
+        private long fila;
+        private String numeroIdentificacion;
+        private String mensaje;
+
+        public ErrorFila() {}
+
+        public ErrorFila(long fila, String numeroIdentificacion, String mensaje) {
+            this.fila = fila;
+            this.numeroIdentificacion = numeroIdentificacion;
+            this.mensaje = mensaje;
+        }
+
+        public long getFila() {
+            return fila;
+        }
+
+        public void setFila(long fila) {
+            this.fila = fila;
+        }
+
+        public String getNumeroIdentificacion() {
+            return numeroIdentificacion;
+        }
+
+        public void setNumeroIdentificacion(String numeroIdentificacion) {
+            this.numeroIdentificacion = numeroIdentificacion;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        public void setMensaje(String mensaje) {
+            this.mensaje = mensaje;
+        }
+    }
+}
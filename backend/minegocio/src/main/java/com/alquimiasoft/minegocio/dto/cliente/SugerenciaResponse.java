@@ -0,0 +1,57 @@
+package com.alquimiasoft.minegocio.dto.cliente;
+
+/**
+ * DTO liviano para las sugerencias de autocompletado de clientes
+ */
+public class SugerenciaResponse {
+
+    public static final String TIPO_NOMBRE = "NOMBRE";
+    public static final String TIPO_IDENTIFICACION = "IDENTIFICACION";
+
+    private Long id;
+    private String texto;
+    private String tipo;
+
+    // Constructores
+    public SugerenciaResponse() {}
+
+    public SugerenciaResponse(Long id, String texto, String tipo) {
+        this.id = id;
+        this.texto = texto;
+        this.tipo = tipo;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    @Override
+    public String toString() {
+        return "SugerenciaResponse{" +
+                "id=" + id +
+                ", texto='" + texto + '\'' +
+                ", tipo='" + tipo + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package com.alquimiasoft.minegocio.dto.direccion;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para registrar varias direcciones de un cliente en una sola petición
+ */
+public class DireccionLoteRequest {
+
+    @NotEmpty(message = "Debe enviar al menos una dirección")
+    private List<@Valid DireccionRequest> direcciones = new ArrayList<>();
+
+    private Integer nuevaMatriz;
+
+    // Constructores
+    public DireccionLoteRequest() {}
+
+    public DireccionLoteRequest(List<DireccionRequest> direcciones, Integer nuevaMatriz) {
+        this.direcciones = direcciones;
+        this.nuevaMatriz = nuevaMatriz;
+    }
+
+    // Getters y Setters
+    public List<DireccionRequest> getDirecciones() {
+        return direcciones;
+    }
+
+    public void setDirecciones(List<DireccionRequest> direcciones) {
+        this.direcciones = direcciones;
+    }
+
+    /**
+     * Posición (desde 0) de la dirección de la lista que pasa a ser la matriz;
+     * la matriz actual queda como adicional. Null conserva la matriz actual.
+     */
+    public Integer getNuevaMatriz() {
+        return nuevaMatriz;
+    }
+
+    public void setNuevaMatriz(Integer nuevaMatriz) {
+        this.nuevaMatriz = nuevaMatriz;
+    }
+}
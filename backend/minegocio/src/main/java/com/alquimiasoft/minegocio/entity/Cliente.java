@@ -1,21 +1,34 @@
 package com.alquimiasoft.minegocio.entity;
 
+import com.alquimiasoft.minegocio.util.ClaveFonetica;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Entidad Cliente
+ *
+ * Se guarda en la caché de segundo nivel (READ_WRITE): una escritura bloquea la
+ * entrada hasta el commit, así ninguna lectura concurrente ve datos viejos.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
 @Table(name = "cliente", 
        uniqueConstraints = {
            @UniqueConstraint(name = "uq_cliente_empresa_tipo_numero", 
@@ -23,12 +36,20 @@ import java.util.Objects;
        },
        indexes = {
            @Index(name = "idx_cliente_numero_identificacion", columnList = "numero_identificacion"),
-           @Index(name = "idx_cliente_nombres_lower", columnList = "nombres")
+           @Index(name = "idx_cliente_nombres_lower", columnList = "nombres"),
+           @Index(name = "idx_cliente_empresa_nombres_id", columnList = "empresa_id, nombres, id"),
+           @Index(name = "idx_cliente_empresa_nombres_norm", columnList = "empresa_id, nombres_normalizados"),
+           @Index(name = "idx_cliente_empresa_creado_en_id", columnList = "empresa_id, creado_en, id")
        })
 public class Cliente {
 
+    /**
+     * Generado por secuencia con el optimizador pooled-lo: cada llamada reserva un
+     * bloque de ids (INCREMENT BY de la secuencia), así los INSERT van en batch
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "El ID de la empresa es obligatorio")
@@ -50,6 +71,13 @@ public class Cliente {
     @Column(name = "nombres", nullable = false)
     private String nombres;
 
+    /**
+     * Nombres sin tildes, en minúsculas y sin puntuación (TextoBusqueda.normalizar);
+     * se recalcula antes de cada INSERT/UPDATE y es la columna que usa la búsqueda
+     */
+    @Column(name = "nombres_normalizados", nullable = false)
+    private String nombresNormalizados;
+
     @Email(message = "El formato del correo electrónico no es válido")
     @Size(max = 150, message = "El correo no puede exceder 150 caracteres")
     @Column(name = "correo", length = 150)
@@ -63,7 +91,25 @@ public class Cliente {
     @Column(name = "creado_en", nullable = false, updatable = false)
     private LocalDateTime creadoEn;
 
+    /**
+     * Claves fonéticas de cada palabra de los nombres (ClaveFonetica), para
+     * la búsqueda modo=fonetico por igualdad sobre idx_clave_fonetica_clave
+     */
+    @ElementCollection
+    @CollectionTable(name = "cliente_clave_fonetica",
+                     joinColumns = @JoinColumn(name = "cliente_id",
+                                               foreignKey = @ForeignKey(name = "fk_clave_fonetica_cliente")),
+                     indexes = @Index(name = "idx_clave_fonetica_clave", columnList = "clave, cliente_id"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Column(name = "clave", nullable = false, length = ClaveFonetica.LONGITUD_MAXIMA)
+    private Set<String> clavesFoneticas = new HashSet<>();
+
+    /**
+     * Ids de las direcciones en caché; se invalida al agregar o quitar (orphanRemoval)
+     * y, con auto_evict_collection_cache, al borrar una Direccion por su lado
+     */
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente-direcciones")
     private List<Direccion> direcciones = new ArrayList<>();
 
     // Constructores
@@ -77,6 +123,25 @@ public class Cliente {
         this.nombres = nombres;
         this.correo = correo;
         this.celular = celular;
+        actualizarClavesFoneticas();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizarNombres() {
+        this.nombresNormalizados = TextoBusqueda.normalizar(nombres);
+    }
+
+    /**
+     * Las claves se recalculan al asignar los nombres: los cambios en colecciones
+     * hechos dentro de @PreUpdate no siempre llegan al flush
+     */
+    private void actualizarClavesFoneticas() {
+        Set<String> claves = ClaveFonetica.claves(nombres);
+        if (!clavesFoneticas.equals(claves)) {
+            clavesFoneticas.clear();
+            clavesFoneticas.addAll(claves);
+        }
     }
 
     // Métodos de utilidad
@@ -158,6 +223,15 @@ public class Cliente {
 
     public void setNombres(String nombres) {
         this.nombres = nombres;
+        actualizarClavesFoneticas();
+    }
+
+    public String getNombresNormalizados() {
+        return nombresNormalizados;
+    }
+
+    public Set<String> getClavesFoneticas() {
+        return clavesFoneticas;
     }
 
     public String getCorreo() {
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -13,6 +17,8 @@ import java.util.Objects;
  * Entidad Direccion que representa una dirección del cliente
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "direccion")
 @Table(name = "direccion",
        indexes = {
            @Index(name = "idx_direccion_cliente", columnList = "cliente_id"),
@@ -20,12 +26,21 @@ import java.util.Objects;
        })
 public class Direccion {
 
+    /**
+     * Generado por secuencia con el optimizador pooled-lo: cada llamada reserva un
+     * bloque de ids (INCREMENT BY de la secuencia), así los INSERT van en batch
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "direccion_seq")
+    @SequenceGenerator(name = "direccion_seq", sequenceName = "direccion_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * ON DELETE CASCADE como en el changelog: ClienteRepository.eliminarPorIds no carga las direcciones
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false, foreignKey = @ForeignKey(name = "fk_direccion_cliente"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @NotNull(message = "El cliente es obligatorio")
     private Cliente cliente;
 
@@ -0,0 +1,106 @@
+package com.alquimiasoft.minegocio.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado cuando se crea, actualiza o elimina un cliente.
+ * Los listeners lo reciben después del commit de la transacción.
+ * Si el cambio tocó direcciones lleva los ids de las que quedaron obsoletas
+ * (borradas o modificadas) para descartarlas de las cachés de los demás nodos.
+ */
+public class ClienteModificadoEvent {
+
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        ELIMINADO
+    }
+
+    private final Tipo tipo;
+    private final Long empresaId;
+    private final Long clienteId;
+    private final String nombres;
+    private final String numeroIdentificacion;
+    private final Collection<Long> direccionIds;
+
+    public ClienteModificadoEvent(Tipo tipo, Long empresaId, Long clienteId,
+                                  String nombres, String numeroIdentificacion) {
+        this(tipo, empresaId, clienteId, nombres, numeroIdentificacion, null);
+    }
+
+    private ClienteModificadoEvent(Tipo tipo, Long empresaId, Long clienteId, String nombres,
+                                   String numeroIdentificacion, Collection<Long> direccionIds) {
+        this.tipo = tipo;
+        this.empresaId = empresaId;
+        this.clienteId = clienteId;
+        this.nombres = nombres;
+        this.numeroIdentificacion = numeroIdentificacion;
+        this.direccionIds = direccionIds;
+    }
+
+    public static ClienteModificadoEvent creado(Long empresaId, Long clienteId,
+                                                String nombres, String numeroIdentificacion) {
+        return new ClienteModificadoEvent(Tipo.CREADO, empresaId, clienteId, nombres, numeroIdentificacion);
+    }
+
+    public static ClienteModificadoEvent actualizado(Long empresaId, Long clienteId,
+                                                     String nombres, String numeroIdentificacion) {
+        return new ClienteModificadoEvent(Tipo.ACTUALIZADO, empresaId, clienteId, nombres, numeroIdentificacion);
+    }
+
+    public static ClienteModificadoEvent eliminado(Long empresaId, Long clienteId) {
+        return new ClienteModificadoEvent(Tipo.ELIMINADO, empresaId, clienteId, null, null);
+    }
+
+    /**
+     * Copia del evento que indica que el cambio tocó direcciones del cliente
+     * @param direccionIds Direcciones borradas o modificadas; vacío si solo se agregaron
+     */
+    public ClienteModificadoEvent conDirecciones(Collection<Long> direccionIds) {
+        return new ClienteModificadoEvent(tipo, empresaId, clienteId, nombres, numeroIdentificacion,
+                List.copyOf(direccionIds));
+    }
+
+    // Getters
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public String getNombres() {
+        return nombres;
+    }
+
+    public String getNumeroIdentificacion() {
+        return numeroIdentificacion;
+    }
+
+    public boolean isDireccionesModificadas() {
+        return direccionIds != null;
+    }
+
+    /**
+     * @return Direcciones obsoletas; vacío si el cambio no tocó direcciones
+     */
+    public Collection<Long> getDireccionIds() {
+        return direccionIds != null ? direccionIds : List.of();
+    }
+
+    @Override
+    public String toString() {
+        return "ClienteModificadoEvent{" +
+                "tipo=" + tipo +
+                ", empresaId=" + empresaId +
+                ", clienteId=" + clienteId +
+                ", direccionIds=" + direccionIds +
+                '}';
+    }
+}
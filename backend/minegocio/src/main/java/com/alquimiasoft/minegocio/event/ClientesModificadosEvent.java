@@ -0,0 +1,37 @@
+package com.alquimiasoft.minegocio.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado cuando una misma transacción crea, actualiza o elimina varios
+ * clientes de una empresa (importación por lotes, eliminación en lote). Los listeners
+ * lo reciben después del commit y aplican los cambios juntos: una invalidación por
+ * empresa y un solo NOTIFY en lugar de uno por cliente.
+ */
+public class ClientesModificadosEvent {
+
+    private final Long empresaId;
+    private final List<ClienteModificadoEvent> cambios;
+
+    public ClientesModificadosEvent(Long empresaId, List<ClienteModificadoEvent> cambios) {
+        this.empresaId = empresaId;
+        this.cambios = List.copyOf(cambios);
+    }
+
+    // Getters
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public List<ClienteModificadoEvent> getCambios() {
+        return cambios;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientesModificadosEvent{" +
+                "empresaId=" + empresaId +
+                ", cambios=" + cambios.size() +
+                '}';
+    }
+}
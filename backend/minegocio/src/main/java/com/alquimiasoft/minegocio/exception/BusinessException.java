@@ -25,7 +25,35 @@ public class BusinessException extends RuntimeException {
         return new BusinessException("La empresa especificada no es válida: " + empresaId);
     }
 
+    public static BusinessException ordenNoPermitido(String campo) {
+        return new BusinessException("No se permite ordenar por el campo: " + campo);
+    }
+
+    public static BusinessException modoBusquedaInvalido(String modo) {
+        return new BusinessException("Modo de búsqueda no válido: " + modo);
+    }
+
+    public static BusinessException formatoExportacionInvalido(String formato) {
+        return new BusinessException("Formato de exportación no válido: " + formato);
+    }
+
+    public static BusinessException ordenNoPermitidoEnTextoCompleto() {
+        return new BusinessException("La búsqueda de texto completo se ordena por relevancia y no admite orden explícito");
+    }
+
+    public static BusinessException cursorInvalido() {
+        return new BusinessException("El cursor de paginación no es válido");
+    }
+
     public static BusinessException operacionNoPermitida(String operacion) {
         return new BusinessException("Operación no permitida: " + operacion);
     }
-}
\ No newline at end of file
+
+    public static BusinessException loteDemasiadoGrande(int maximo) {
+        return new BusinessException("El lote no puede tener más de " + maximo + " elementos");
+    }
+
+    public static BusinessException posicionMatrizInvalida(Integer posicion) {
+        return new BusinessException("La posición de la nueva matriz no está en el lote: " + posicion);
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
@@ -63,6 +65,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * Maneja errores de validación de elementos de listas (p. ej. List<@Valid ...> en el cuerpo)
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleMethodValidationException(HandlerMethodValidationException ex) {
+        logger.warn("Error de validación: {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getParameterValidationResults().forEach((resultado) -> {
+            String parametro = resultado.getMethodParameter().getParameterName();
+            if (resultado.getContainerIndex() != null) {
+                parametro += "[" + resultado.getContainerIndex() + "]";
+            }
+            if (resultado instanceof ParameterErrors erroresCampos) {
+                for (FieldError error : erroresCampos.getFieldErrors()) {
+                    errors.put(parametro + "." + error.getField(), error.getDefaultMessage());
+                }
+            } else {
+                String nombre = parametro;
+                resultado.getResolvableErrors().forEach((error) -> errors.put(nombre, error.getDefaultMessage()));
+            }
+        });
+
+        ApiResponse<Map<String, String>> response = ApiResponse.error("Errores de validación", errors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     /**
      * Maneja errores de conversión de tipos
      */
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -110,7 +111,39 @@ public class ClienteMapper {
         if (cliente == null) {
             return null;
         }
+        return toResponseWithMatriz(cliente, cliente.getDireccionMatriz());
+    }
+
+    /**
+     * Convierte una lista de clientes a respuesta simplificada con solo dirección matriz
+     */
+    public List<ClienteResponse> toResponseListWithMatriz(List<Cliente> clientes) {
+        if (clientes == null) {
+            return null;
+        }
+
+        return clientes.stream()
+                .map(this::toResponseWithMatriz)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convierte una lista de clientes usando direcciones matriz ya cargadas,
+     * sin inicializar la colección de direcciones de cada cliente
+     * @param matricesPorCliente Dirección matriz indexada por ID de cliente
+     */
+    public List<ClienteResponse> toResponseListWithMatriz(List<Cliente> clientes,
+                                                          Map<Long, Direccion> matricesPorCliente) {
+        if (clientes == null) {
+            return null;
+        }
+
+        return clientes.stream()
+                .map(cliente -> toResponseWithMatriz(cliente, matricesPorCliente.get(cliente.getId())))
+                .collect(Collectors.toList());
+    }
 
+    private ClienteResponse toResponseWithMatriz(Cliente cliente, Direccion direccionMatriz) {
         ClienteResponse response = new ClienteResponse(
                 cliente.getId(),
                 cliente.getEmpresaId(),
@@ -123,24 +156,10 @@ public class ClienteMapper {
         );
 
         // Solo mapear dirección matriz
-        Direccion direccionMatriz = cliente.getDireccionMatriz();
         if (direccionMatriz != null) {
             response.setDireccionMatriz(direccionMapper.toResponse(direccionMatriz));
         }
 
         return response;
     }
-
-    /**
-     * Convierte una lista de clientes a respuesta simplificada con solo dirección matriz
-     */
-    public List<ClienteResponse> toResponseListWithMatriz(List<Cliente> clientes) {
-        if (clientes == null) {
-            return null;
-        }
-
-        return clientes.stream()
-                .map(this::toResponseWithMatriz)
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
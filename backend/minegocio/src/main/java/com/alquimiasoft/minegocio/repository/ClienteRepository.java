@@ -1,6 +1,11 @@
 package com.alquimiasoft.minegocio.repository;
 
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse;
 import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz;
+import com.alquimiasoft.minegocio.repository.projection.ClienteEmpresa;
+import com.alquimiasoft.minegocio.repository.projection.ClienteResumen;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +13,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +22,31 @@ import java.util.Optional;
  * Repositorio para la entidad Cliente
  */
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryCustom {
+
+    /**
+     * SELECT que construye ClienteResponse con su matriz directamente desde las columnas,
+     * sin hidratar entidades ni registrarlas en el contexto de persistencia
+     */
+    String SELECT_RESPONSE = "SELECT new com.alquimiasoft.minegocio.dto.cliente.ClienteResponse(" +
+            "c.id, c.empresaId, c.tipoIdentificacion, c.numeroIdentificacion, c.nombres, c.correo, " +
+            "c.celular, c.creadoEn, d.id, d.provincia, d.ciudad, d.direccionTexto, d.creadoEn) " +
+            "FROM Cliente c LEFT JOIN Direccion d ON d.cliente = c AND d.esMatriz = true ";
+
+    /**
+     * IDs de los clientes de la empresa que tienen todas las claves fonéticas buscadas
+     */
+    String CLIENTES_CON_CLAVES = "SELECT cf.id FROM Cliente cf JOIN cf.clavesFoneticas clave " +
+            "WHERE cf.empresaId = :empresaId AND clave IN :claves " +
+            "GROUP BY cf.id HAVING COUNT(DISTINCT clave) = :cantidad";
+
+    /**
+     * tsquery con los términos del criterio unidos por OR ("cliente de Cuenca" basta con
+     * que aparezca Cuenca); ts_rank favorece a los clientes que contienen más términos.
+     * Usa la configuración es_unaccent (español sin tildes) creada en el changeset 016.
+     */
+    String CONSULTA_TEXTO_COMPLETO =
+            "CAST(REPLACE(CAST(plainto_tsquery('es_unaccent', :texto) AS text), '&', '|') AS tsquery)";
 
     /**
      * Busca un cliente por empresa y número de identificación
@@ -23,7 +54,8 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByEmpresaIdAndNumeroIdentificacion(Long empresaId, String numeroIdentificacion);
 
     /**
-     * Verifica si existe un cliente con el mismo tipo y número de identificación en una empresa
+     * Verifica si existe un cliente con el mismo tipo y número de identificación en una empresa.
+     * Para validar muchas identificaciones usar buscarIdentificacionesExistentes.
      */
     boolean existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion(
             Long empresaId, String tipoIdentificacion, String numeroIdentificacion);
@@ -51,29 +83,157 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Page<Cliente> findByEmpresaId(Long empresaId, Pageable pageable);
 
     /**
-     * Busca clientes por múltiples criterios usando Query personalizado
+     * Primera página por (nombres, id); usa el índice idx_cliente_empresa_nombres_id
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz(c, d) FROM Cliente c " +
+           "LEFT JOIN Direccion d ON d.cliente = c AND d.esMatriz = true WHERE c.empresaId = :empresaId ORDER BY c.nombres, c.id")
+    List<ClienteConMatriz> buscarPrimerosPorNombres(@Param("empresaId") Long empresaId, Pageable limite);
+
+    /**
+     * Página siguiente a la clave (nombres, id) indicada, sin OFFSET
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz(c, d) FROM Cliente c " +
+           "LEFT JOIN Direccion d ON d.cliente = c AND d.esMatriz = true WHERE c.empresaId = :empresaId AND c.nombres >= :nombres " +
+           "AND (c.nombres > :nombres OR c.id > :id) ORDER BY c.nombres, c.id")
+    List<ClienteConMatriz> buscarSiguientesPorNombres(@Param("empresaId") Long empresaId,
+                                            @Param("nombres") String nombres,
+                                            @Param("id") Long id,
+                                            Pageable limite);
+
+    /**
+     * Primera página por (creadoEn, id); usa el índice idx_cliente_empresa_creado_en_id
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz(c, d) FROM Cliente c " +
+           "LEFT JOIN Direccion d ON d.cliente = c AND d.esMatriz = true WHERE c.empresaId = :empresaId ORDER BY c.creadoEn, c.id")
+    List<ClienteConMatriz> buscarPrimerosPorCreacion(@Param("empresaId") Long empresaId, Pageable limite);
+
+    /**
+     * Página siguiente a la clave (creadoEn, id) indicada, sin OFFSET
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz(c, d) FROM Cliente c " +
+           "LEFT JOIN Direccion d ON d.cliente = c AND d.esMatriz = true WHERE c.empresaId = :empresaId AND c.creadoEn >= :creadoEn " +
+           "AND (c.creadoEn > :creadoEn OR c.id > :id) ORDER BY c.creadoEn, c.id")
+    List<ClienteConMatriz> buscarSiguientesPorCreacion(@Param("empresaId") Long empresaId,
+                                             @Param("creadoEn") LocalDateTime creadoEn,
+                                             @Param("id") Long id,
+                                             Pageable limite);
+
+    /**
+     * Busca clientes por múltiples criterios usando Query personalizado.
+     * patron se construye con TextoBusqueda.patronContiene (normalizado y escapado)
+     * para nombres_normalizados y patronIdentificacion con
+     * TextoBusqueda.patronIdentificacion para LOWER(numero_identificacion); en
+     * PostgreSQL ambos usan los índices trigram de esas columnas.
      */
     @Query("SELECT c FROM Cliente c WHERE c.empresaId = :empresaId " +
-           "AND (LOWER(c.numeroIdentificacion) LIKE LOWER(CONCAT('%', :busqueda, '%')) " +
-           "OR LOWER(c.nombres) LIKE LOWER(CONCAT('%', :busqueda, '%')))")
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\')")
     List<Cliente> buscarClientesPorEmpresaYTexto(@Param("empresaId") Long empresaId, 
-                                                @Param("busqueda") String busqueda);
+                                                @Param("patronIdentificacion") String patronIdentificacion,
+                                                @Param("patron") String patron);
 
     /**
      * Busca clientes por múltiples criterios con paginación
      */
     @Query("SELECT c FROM Cliente c WHERE c.empresaId = :empresaId " +
-           "AND (LOWER(c.numeroIdentificacion) LIKE LOWER(CONCAT('%', :busqueda, '%')) " +
-           "OR LOWER(c.nombres) LIKE LOWER(CONCAT('%', :busqueda, '%')))")
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\')")
     Page<Cliente> buscarClientesPorEmpresaYTexto(@Param("empresaId") Long empresaId, 
-                                                @Param("busqueda") String busqueda, 
+                                                @Param("patronIdentificacion") String patronIdentificacion,
+                                                @Param("patron") String patron, 
                                                 Pageable pageable);
 
     /**
-     * Busca clientes con sus direcciones cargadas
+     * Busca clientes por identificación o nombre ordenados por relevancia:
+     * coincidencia exacta, luego por prefijo y luego por subcadena.
+     * Los parámetros se construyen con TextoBusqueda a partir del mismo criterio: los
+     * de identificación solo en minúsculas y los de nombres normalizados.
+     */
+    @Query(value = SELECT_RESPONSE + "WHERE c.empresaId = :empresaId " +
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\') " +
+           "ORDER BY CASE " +
+           "WHEN LOWER(c.numeroIdentificacion) = :identificacion OR c.nombresNormalizados = :texto THEN 0 " +
+           "WHEN LOWER(c.numeroIdentificacion) LIKE :prefijoIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :prefijo ESCAPE '\\' THEN 1 " +
+           "ELSE 2 END, c.nombres, c.id",
+           countQuery = "SELECT COUNT(c) FROM Cliente c WHERE c.empresaId = :empresaId " +
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\')")
+    Page<ClienteResponse> buscarResponsesPorRelevancia(@Param("empresaId") Long empresaId,
+                                                       @Param("identificacion") String identificacion,
+                                                       @Param("prefijoIdentificacion") String prefijoIdentificacion,
+                                                       @Param("patronIdentificacion") String patronIdentificacion,
+                                                       @Param("texto") String texto,
+                                                       @Param("prefijo") String prefijo,
+                                                       @Param("patron") String patron,
+                                                       Pageable pageable);
+
+    /**
+     * Busca clientes por identificación o nombre con el orden indicado en la página
      */
-    @Query("SELECT DISTINCT c FROM Cliente c LEFT JOIN FETCH c.direcciones WHERE c.empresaId = :empresaId")
-    List<Cliente> findByEmpresaIdWithDirecciones(@Param("empresaId") Long empresaId);
+    @Query(value = SELECT_RESPONSE + "WHERE c.empresaId = :empresaId " +
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\')",
+           countQuery = "SELECT COUNT(c) FROM Cliente c WHERE c.empresaId = :empresaId " +
+           "AND (LOWER(c.numeroIdentificacion) LIKE :patronIdentificacion ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :patron ESCAPE '\\')")
+    Page<ClienteResponse> buscarResponsesPorEmpresaYTexto(@Param("empresaId") Long empresaId,
+                                                          @Param("patronIdentificacion") String patronIdentificacion,
+                                                          @Param("patron") String patron,
+                                                          Pageable pageable);
+
+    /**
+     * IDs de los clientes cuyo documento de texto completo (nombres, identificación y
+     * dirección matriz, columna busqueda_fts mantenida por triggers) contiene alguno de
+     * los términos, ordenados por ts_rank. Solo PostgreSQL: usa idx_cliente_busqueda_fts.
+     */
+    @Query(value = "SELECT c.id FROM cliente c WHERE c.empresa_id = :empresaId " +
+           "AND c.busqueda_fts @@ " + CONSULTA_TEXTO_COMPLETO + " " +
+           "ORDER BY ts_rank(c.busqueda_fts, " + CONSULTA_TEXTO_COMPLETO + ") DESC, c.nombres, c.id",
+           countQuery = "SELECT COUNT(*) FROM cliente c WHERE c.empresa_id = :empresaId " +
+           "AND c.busqueda_fts @@ " + CONSULTA_TEXTO_COMPLETO,
+           nativeQuery = true)
+    Page<Long> buscarIdsPorTextoCompleto(@Param("empresaId") Long empresaId,
+                                         @Param("texto") String texto,
+                                         Pageable pageable);
+
+    /**
+     * Clientes cuyos nombres contienen una palabra con cada una de las claves
+     * fonéticas indicadas. La subconsulta resuelve las claves por igualdad sobre
+     * idx_clave_fonetica_clave; cantidad es el número de claves distintas.
+     */
+    @Query(value = SELECT_RESPONSE + "WHERE c.id IN (" + CLIENTES_CON_CLAVES + ") ORDER BY c.nombres, c.id",
+           countQuery = "SELECT COUNT(c) FROM Cliente c WHERE c.id IN (" + CLIENTES_CON_CLAVES + ")")
+    Page<ClienteResponse> buscarResponsesPorClavesFoneticas(@Param("empresaId") Long empresaId,
+                                                            @Param("claves") Collection<String> claves,
+                                                            @Param("cantidad") long cantidad,
+                                                            Pageable pageable);
+
+    /**
+     * Página de clientes de una empresa con solo su dirección matriz, proyectada
+     * directamente a ClienteResponse. El JOIN por es_matriz = true usa el índice parcial
+     * uq_direccion_unica_matriz_per_cliente y trae a lo sumo una fila por cliente,
+     * sin cargar entidades en el contexto de persistencia.
+     */
+    @Query(value = SELECT_RESPONSE + "WHERE c.empresaId = :empresaId",
+           countQuery = "SELECT COUNT(c) FROM Cliente c WHERE c.empresaId = :empresaId")
+    Page<ClienteResponse> findResponsesByEmpresaId(@Param("empresaId") Long empresaId, Pageable pageable);
+
+    /**
+     * Proyección de los clientes indicados (el orden lo decide quien llama)
+     */
+    @Query(SELECT_RESPONSE + "WHERE c.id IN :ids")
+    List<ClienteResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección por el índice único de empresa, tipo y número de identificación
+     */
+    @Query(SELECT_RESPONSE + "WHERE c.empresaId = :empresaId " +
+           "AND c.tipoIdentificacion = :tipo AND c.numeroIdentificacion = :numero")
+    Optional<ClienteResponse> findResponseByIdentificacion(@Param("empresaId") Long empresaId,
+                                                           @Param("tipo") String tipoIdentificacion,
+                                                           @Param("numero") String numeroIdentificacion);
 
     /**
      * Busca un cliente con sus direcciones cargadas por ID
@@ -91,4 +251,38 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      */
     long countByEmpresaId(Long empresaId);
 
+    /**
+     * Obtiene id, nombres e identificación de todos los clientes de una empresa
+     * sin cargar entidades (usado para construir índices en memoria)
+     */
+    List<ClienteResumen> findResumenByEmpresaId(Long empresaId);
+
+    /**
+     * Sugerencias por nombre cuando el índice en memoria está deshabilitado: el patrón
+     * prefijo ('texto%') coincide con la primera palabra y palabra (' texto%') con las
+     * siguientes, ambos de TextoBusqueda sobre nombres_normalizados
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse(c.id, c.nombres, 'NOMBRE') " +
+           "FROM Cliente c WHERE c.empresaId = :empresaId AND (c.nombresNormalizados LIKE :prefijo ESCAPE '\\' " +
+           "OR c.nombresNormalizados LIKE :palabra ESCAPE '\\') ORDER BY c.nombresNormalizados, c.id")
+    List<SugerenciaResponse> sugerirPorNombre(@Param("empresaId") Long empresaId,
+                                              @Param("prefijo") String prefijo,
+                                              @Param("palabra") String palabra,
+                                              Pageable limite);
+
+    /**
+     * Sugerencias por identificación; el prefijo se construye con TextoBusqueda.prefijoIdentificacion
+     */
+    @Query("SELECT new com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse(c.id, c.numeroIdentificacion, " +
+           "'IDENTIFICACION') FROM Cliente c WHERE c.empresaId = :empresaId " +
+           "AND LOWER(c.numeroIdentificacion) LIKE :prefijo ESCAPE '\\' ORDER BY c.numeroIdentificacion, c.id")
+    List<SugerenciaResponse> sugerirPorIdentificacion(@Param("empresaId") Long empresaId,
+                                                      @Param("prefijo") String prefijo,
+                                                      Pageable limite);
+
+    /**
+     * Id y empresa de los clientes indicados que existen
+     */
+    List<ClienteEmpresa> findByIdIn(Collection<Long> ids);
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.alquimiasoft.minegocio.repository;
+
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.entity.Cliente;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Consultas de ClienteRepository que no se pueden expresar con JPQL
+ */
+public interface ClienteRepositoryCustom {
+
+    /**
+     * Identificaciones de la lista que ya pertenecen a un cliente de la empresa.
+     * Equivale a llamar existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion
+     * por cada una, pero en un solo viaje a la base de datos.
+     */
+    Set<IdentificacionCliente> buscarIdentificacionesExistentes(
+            Long empresaId, Collection<IdentificacionCliente> identificaciones);
+
+    /**
+     * Inserta el cliente nuevo con su dirección matriz y sus claves fonéticas en una
+     * sola sentencia con ON CONFLICT ON CONSTRAINT uq_cliente_empresa_tipo_numero DO NOTHING.
+     * Si se insertó, asigna los ids y creadoEn al cliente y a su matriz (quedan fuera
+     * del contexto de persistencia). Solo PostgreSQL.
+     * @return false si ya existía un cliente con la misma identificación en la empresa
+     */
+    boolean insertarSiNoExiste(Cliente cliente);
+
+    /**
+     * Elimina los clientes con un solo DELETE; sus direcciones y claves fonéticas las
+     * borra la base de datos (fk_direccion_cliente y fk_clave_fonetica_cliente con
+     * ON DELETE CASCADE). Separa del contexto de persistencia solo esos clientes y sus
+     * direcciones y descarta de la caché de segundo nivel lo que pudo quedar de esas tablas.
+     * @return Número de clientes eliminados
+     */
+    int eliminarPorIds(Collection<Long> ids);
+}
@@ -0,0 +1,231 @@
+package com.alquimiasoft.minegocio.repository;
+
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementación de ClienteRepositoryCustom con JDBC.
+ *
+ * En PostgreSQL las identificaciones viajan como dos arreglos y se cruzan con
+ * unnest contra uq_cliente_empresa_tipo_numero: una sola sentencia y un solo plan
+ * sin importar cuántas sean. En otros motores se consulta por bloques de
+ * numero_identificacion IN (...) y el tipo se compara en memoria.
+ *
+ * insertarSiNoExiste encadena los tres INSERT en CTE: las direcciones y claves solo
+ * se insertan si el cliente no chocó con la restricción única. Como la sentencia no
+ * pasa por Hibernate, marca ella misma sus tablas en TimestampsCache (antes y después
+ * del commit, como un INSERT por entidad): las consultas cacheadas sobre cliente y
+ * direccion quedan viejas y el resto de la caché de consultas se conserva.
+ *
+ * eliminarPorIds es un DELETE nativo que declara como afectadas las tablas que limpia
+ * el ON DELETE CASCADE: así Hibernate descarta sus regiones de caché y marca las
+ * consultas cacheadas sobre ellas como viejas, igual que con un DELETE por entidad.
+ * Después separa del contexto de persistencia solo esos clientes y sus direcciones;
+ * el resto de entidades cargadas en la transacción sigue administrado.
+ */
+class ClienteRepositoryImpl implements ClienteRepositoryCustom {
+
+    /**
+     * Números por sentencia IN; lejos del límite de parámetros de los drivers
+     */
+    static final int TAMANO_BLOQUE_IN = 1000;
+
+    private static final String EXISTENTES_UNNEST =
+            "SELECT c.tipo_identificacion, c.numero_identificacion FROM cliente c "
+                    + "JOIN unnest(?, ?) AS buscada(tipo, numero) "
+                    + "ON c.tipo_identificacion = buscada.tipo AND c.numero_identificacion = buscada.numero "
+                    + "WHERE c.empresa_id = ?";
+
+    private static final String EXISTENTES_IN =
+            "SELECT tipo_identificacion, numero_identificacion FROM cliente "
+                    + "WHERE empresa_id = :empresaId AND numero_identificacion IN (:numeros)";
+
+    private static final String INSERTAR_SI_NO_EXISTE =
+            "WITH nuevo AS ("
+                    + "INSERT INTO cliente (id, empresa_id, tipo_identificacion, numero_identificacion, nombres, "
+                    + "nombres_normalizados, correo, celular, creado_en) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT ON CONSTRAINT uq_cliente_empresa_tipo_numero DO NOTHING RETURNING id), "
+                    + "matriz AS ("
+                    + "INSERT INTO direccion (id, cliente_id, provincia, ciudad, direccion_texto, es_matriz, creado_en) "
+                    + "SELECT ?, nuevo.id, ?, ?, ?, TRUE, ? FROM nuevo), "
+                    + "claves AS ("
+                    + "INSERT INTO cliente_clave_fonetica (cliente_id, clave) "
+                    + "SELECT nuevo.id, clave FROM nuevo, unnest(?) AS clave) "
+                    + "SELECT id FROM nuevo";
+
+    /**
+     * Tablas que escribe INSERTAR_SI_NO_EXISTE, con los nombres que usa Hibernate como espacios de consulta
+     */
+    private static final String[] ESPACIOS_INSERCION = {"cliente", "direccion", "cliente_clave_fonetica"};
+
+    private static final String ELIMINAR_POR_IDS = "DELETE FROM cliente WHERE id IN (:ids)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private BaseDatosInfo baseDatos;
+
+    @Autowired
+    private GeneradorIds generadorIds;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Set<IdentificacionCliente> buscarIdentificacionesExistentes(
+            Long empresaId, Collection<IdentificacionCliente> identificaciones) {
+        Set<IdentificacionCliente> buscadas = new LinkedHashSet<>(identificaciones);
+        if (buscadas.isEmpty()) {
+            return new HashSet<>();
+        }
+        return baseDatos.isPostgreSql()
+                ? existentesConUnnest(empresaId, buscadas)
+                : existentesPorBloques(empresaId, buscadas);
+    }
+
+    private Set<IdentificacionCliente> existentesConUnnest(Long empresaId, Set<IdentificacionCliente> buscadas) {
+        String[] tipos = new String[buscadas.size()];
+        String[] numeros = new String[buscadas.size()];
+        int i = 0;
+        for (IdentificacionCliente identificacion : buscadas) {
+            tipos[i] = identificacion.getTipoIdentificacion();
+            numeros[i++] = identificacion.getNumeroIdentificacion();
+        }
+        Set<IdentificacionCliente> existentes = new HashSet<>();
+        jdbcTemplate.query(EXISTENTES_UNNEST, sentencia -> {
+            Array arregloTipos = sentencia.getConnection().createArrayOf("varchar", tipos);
+            Array arregloNumeros = sentencia.getConnection().createArrayOf("varchar", numeros);
+            sentencia.setArray(1, arregloTipos);
+            sentencia.setArray(2, arregloNumeros);
+            sentencia.setLong(3, empresaId);
+        }, fila -> {
+            existentes.add(new IdentificacionCliente(fila.getString(1), fila.getString(2)));
+        });
+        return existentes;
+    }
+
+    private Set<IdentificacionCliente> existentesPorBloques(Long empresaId, Set<IdentificacionCliente> buscadas) {
+        List<String> numeros = buscadas.stream().map(IdentificacionCliente::getNumeroIdentificacion)
+                .distinct().toList();
+        Set<IdentificacionCliente> existentes = new HashSet<>();
+        for (int desde = 0; desde < numeros.size(); desde += TAMANO_BLOQUE_IN) {
+            List<String> bloque = new ArrayList<>(
+                    numeros.subList(desde, Math.min(desde + TAMANO_BLOQUE_IN, numeros.size())));
+            namedJdbcTemplate.query(EXISTENTES_IN, Map.of("empresaId", empresaId, "numeros", bloque), fila -> {
+                IdentificacionCliente encontrada = new IdentificacionCliente(fila.getString(1), fila.getString(2));
+                // El mismo número con otro tipo no cuenta como existente
+                if (buscadas.contains(encontrada)) {
+                    existentes.add(encontrada);
+                }
+            });
+        }
+        return existentes;
+    }
+
+    @Override
+    public boolean insertarSiNoExiste(Cliente cliente) {
+        Direccion matriz = cliente.getDireccionMatriz();
+        long clienteId = generadorIds.siguiente(Cliente.class);
+        long matrizId = generadorIds.siguiente(Direccion.class);
+        LocalDateTime creadoEn = LocalDateTime.now();
+        Timestamp marca = Timestamp.valueOf(creadoEn);
+        String[] claves = cliente.getClavesFoneticas().toArray(String[]::new);
+
+        List<Long> insertados = jdbcTemplate.query(INSERTAR_SI_NO_EXISTE, sentencia -> {
+            sentencia.setLong(1, clienteId);
+            sentencia.setLong(2, cliente.getEmpresaId());
+            sentencia.setString(3, cliente.getTipoIdentificacion());
+            sentencia.setString(4, cliente.getNumeroIdentificacion());
+            sentencia.setString(5, cliente.getNombres());
+            sentencia.setString(6, TextoBusqueda.normalizar(cliente.getNombres()));
+            sentencia.setString(7, cliente.getCorreo());
+            sentencia.setString(8, cliente.getCelular());
+            sentencia.setTimestamp(9, marca);
+            sentencia.setLong(10, matrizId);
+            sentencia.setString(11, matriz.getProvincia());
+            sentencia.setString(12, matriz.getCiudad());
+            sentencia.setString(13, matriz.getDireccionTexto());
+            sentencia.setTimestamp(14, marca);
+            sentencia.setArray(15, sentencia.getConnection().createArrayOf("varchar", claves));
+        }, (fila, numero) -> fila.getLong(1));
+
+        if (insertados.isEmpty()) {
+            return false;
+        }
+        invalidarConsultas(ESPACIOS_INSERCION);
+        cliente.setId(clienteId);
+        cliente.setCreadoEn(creadoEn);
+        matriz.setId(matrizId);
+        matriz.setCreadoEn(creadoEn);
+        return true;
+    }
+
+    @Override
+    public int eliminarPorIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        int eliminados = entityManager.createNativeQuery(ELIMINAR_POR_IDS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Cliente.class)
+                .addSynchronizedEntityClass(Direccion.class)
+                .addSynchronizedQuerySpace("cliente_clave_fonetica")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        // Las entidades cargadas de esos clientes (y sus direcciones) ya no existen
+        separar(ids);
+        return eliminados;
+    }
+
+    private void invalidarConsultas(String[] espacios) {
+        SessionImplementor sesion = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache marcas = sesion.getFactory().getCache().getTimestampsCache();
+        // Igual que las acciones de Hibernate: bloquea los espacios durante la transacción
+        // y deja la marca definitiva al terminar, se confirme o no
+        marcas.preInvalidate(espacios, sesion);
+        sesion.getActionQueue().registerProcess((exito, sesionActual) -> marcas.invalidate(espacios, sesionActual));
+    }
+
+    private void separar(Collection<Long> ids) {
+        Set<Long> clienteIds = new HashSet<>(ids);
+        List<Object> afectadas = new ArrayList<>();
+        for (Object entidad : entityManager.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().getEntitiesByKey().values()) {
+            if (entidad instanceof Cliente cliente && clienteIds.contains(cliente.getId())) {
+                afectadas.add(cliente);
+            } else if (entidad instanceof Direccion direccion && direccion.getCliente() != null
+                    && clienteIds.contains(direccion.getCliente().getId())) {
+                afectadas.add(direccion);
+            }
+        }
+        // Se recorre una copia: detach modifica el mapa del contexto de persistencia
+        afectadas.forEach(entityManager::detach);
+    }
+}
@@ -1,16 +1,27 @@
 package com.alquimiasoft.minegocio.repository;
 
+import com.alquimiasoft.minegocio.dto.direccion.DireccionResponse;
 import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.repository.projection.DireccionCliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repositorio para la entidad Direccion
+ *
+ * Las consultas por cliente usan la caché de consultas de Hibernate; cualquier
+ * escritura sobre la tabla direccion hecha por Hibernate las invalida, también los
+ * UPDATE y DELETE masivos (@Modifying), que además vacían la región de Direccion.
  */
 @Repository
 public interface DireccionRepository extends JpaRepository<Direccion, Long> {
@@ -28,11 +39,31 @@ public interface DireccionRepository extends JpaRepository<Direccion, Long> {
     /**
      * Busca la dirección matriz de un cliente
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Direccion> findByClienteIdAndEsMatrizTrue(Long clienteId);
 
+    /**
+     * Direcciones de un cliente proyectadas a DireccionResponse (matriz primero)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.alquimiasoft.minegocio.dto.direccion.DireccionResponse(" +
+           "d.id, d.provincia, d.ciudad, d.direccionTexto, d.esMatriz, d.creadoEn) " +
+           "FROM Direccion d WHERE d.cliente.id = :clienteId ORDER BY d.esMatriz DESC, d.creadoEn ASC")
+    List<DireccionResponse> findResponsesByClienteId(@Param("clienteId") Long clienteId);
+
+    /**
+     * Dirección matriz de un cliente proyectada a DireccionResponse
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.alquimiasoft.minegocio.dto.direccion.DireccionResponse(" +
+           "d.id, d.provincia, d.ciudad, d.direccionTexto, d.esMatriz, d.creadoEn) " +
+           "FROM Direccion d WHERE d.cliente.id = :clienteId AND d.esMatriz = true")
+    Optional<DireccionResponse> findMatrizResponseByClienteId(@Param("clienteId") Long clienteId);
+
     /**
      * Busca las direcciones adicionales (no matriz) de un cliente
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Direccion> findByClienteIdAndEsMatrizFalse(Long clienteId);
 
     /**
@@ -75,14 +106,38 @@ public interface DireccionRepository extends JpaRepository<Direccion, Long> {
     List<Direccion> buscarDireccionesPorClienteYTexto(@Param("clienteId") Long clienteId, 
                                                      @Param("busqueda") String busqueda);
 
-    /**
-     * Elimina todas las direcciones de un cliente
-     */
-    void deleteByClienteId(Long clienteId);
-
     /**
      * Busca direcciones con información del cliente
      */
     @Query("SELECT d FROM Direccion d JOIN FETCH d.cliente WHERE d.cliente.id = :clienteId")
     List<Direccion> findByClienteIdWithCliente(@Param("clienteId") Long clienteId);
-}
\ No newline at end of file
+
+    /**
+     * IDs de las direcciones adicionales del cliente que están en la lista
+     */
+    @Query("SELECT d.id FROM Direccion d WHERE d.cliente.id = :clienteId AND d.id IN :ids AND d.esMatriz = false")
+    List<Long> findIdsAdicionalesByClienteIdAndIdIn(@Param("clienteId") Long clienteId,
+                                                    @Param("ids") Collection<Long> ids);
+
+    /**
+     * IDs de las direcciones de los clientes indicados con el de su cliente
+     */
+    @Query("SELECT d.id AS id, d.cliente.id AS clienteId FROM Direccion d WHERE d.cliente.id IN :clienteIds")
+    List<DireccionCliente> findIdsByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
+
+    /**
+     * Deja al cliente sin dirección matriz (la actual pasa a ser adicional).
+     * Se ejecuta de inmediato, antes de los INSERT pendientes, para que la nueva
+     * matriz no choque con uq_direccion_unica_matriz_per_cliente.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Direccion d SET d.esMatriz = false WHERE d.cliente.id = :clienteId AND d.esMatriz = true")
+    int quitarMatriz(@Param("clienteId") Long clienteId);
+
+    /**
+     * Elimina en una sola sentencia las direcciones indicadas del cliente
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Direccion d WHERE d.cliente.id = :clienteId AND d.id IN :ids")
+    int eliminarPorClienteIdAndIdIn(@Param("clienteId") Long clienteId, @Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,35 @@
+package com.alquimiasoft.minegocio.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entrega ids para inserciones por SQL nativo desde el mismo optimizador pooled-lo
+ * que usa Hibernate para la entidad: la mayoría salen del bloque ya reservado, sin
+ * consultar la secuencia. Con DEFAULT nextval cada fila gastaría un bloque entero
+ * (las secuencias avanzan de a asignacion_ids).
+ */
+@Component
+public class GeneradorIds {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public long siguiente(Class<?> entidad) {
+        return reservar(entidad, 1)[0];
+    }
+
+    public long[] reservar(Class<?> entidad, int cantidad) {
+        SessionImplementor sesion = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator generador = (IdentifierGenerator) sesion.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(entidad).getGenerator();
+        long[] ids = new long[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            ids[i] = ((Number) generador.generate(sesion, null)).longValue();
+        }
+        return ids;
+    }
+}
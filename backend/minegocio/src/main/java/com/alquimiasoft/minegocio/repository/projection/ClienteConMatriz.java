@@ -0,0 +1,27 @@
+package com.alquimiasoft.minegocio.repository.projection;
+
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+
+/**
+ * Fila de un listado de clientes: el cliente y solo su dirección matriz
+ * (null si no tiene), obtenidos con un único JOIN
+ */
+public class ClienteConMatriz {
+
+    private final Cliente cliente;
+    private final Direccion matriz;
+
+    public ClienteConMatriz(Cliente cliente, Direccion matriz) {
+        this.cliente = cliente;
+        this.matriz = matriz;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public Direccion getMatriz() {
+        return matriz;
+    }
+}
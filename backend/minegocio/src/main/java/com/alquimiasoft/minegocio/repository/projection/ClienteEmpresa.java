@@ -0,0 +1,11 @@
+package com.alquimiasoft.minegocio.repository.projection;
+
+/**
+ * Id y empresa de un cliente, para validar y notificar sin cargar la entidad
+ */
+public interface ClienteEmpresa {
+
+    Long getId();
+
+    Long getEmpresaId();
+}
@@ -0,0 +1,13 @@
+package com.alquimiasoft.minegocio.repository.projection;
+
+/**
+ * Proyección mínima de un cliente usada por los índices de búsqueda en memoria
+ */
+public interface ClienteResumen {
+
+    Long getId();
+
+    String getNombres();
+
+    String getNumeroIdentificacion();
+}
@@ -0,0 +1,11 @@
+package com.alquimiasoft.minegocio.repository.projection;
+
+/**
+ * Id de una dirección y de su cliente, para notificar cambios sin cargar la entidad
+ */
+public interface DireccionCliente {
+
+    Long getId();
+
+    Long getClienteId();
+}
@@ -1,26 +1,59 @@
 package com.alquimiasoft.minegocio.service;
 
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.dto.PaginaCursorResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse;
 import com.alquimiasoft.minegocio.entity.Cliente;
 import com.alquimiasoft.minegocio.entity.Direccion;
 import com.alquimiasoft.minegocio.entity.TipoIdentificacion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
 import com.alquimiasoft.minegocio.exception.BusinessException;
 import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.mapper.ClienteMapper;
 import com.alquimiasoft.minegocio.mapper.DireccionMapper;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.DireccionRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz;
+import com.alquimiasoft.minegocio.repository.projection.ClienteEmpresa;
+import com.alquimiasoft.minegocio.repository.projection.DireccionCliente;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceSugerencias;
+import com.alquimiasoft.minegocio.service.busqueda.ModoBusqueda;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda.Estrategia;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda.PlanBusqueda;
+import com.alquimiasoft.minegocio.util.ClaveFonetica;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de clientes
@@ -31,38 +64,253 @@ public class ClienteService {
 
     private static final Logger logger = LoggerFactory.getLogger(ClienteService.class);
 
+    static final int LIMITE_MAXIMO_SUGERENCIAS = 50;
+
+    public static final int TAMANO_PAGINA_BUSQUEDA = 20;
+    public static final int TAMANO_MAXIMO_PAGINA = 100;
+
+    /**
+     * Máximo de clientes por eliminación en lote (un solo DELETE ... IN)
+     */
+    public static final int TAMANO_MAXIMO_LOTE = 1000;
+
+    /**
+     * Campos por los que se permite ordenar la búsqueda de clientes
+     */
+    static final Set<String> CAMPOS_ORDEN_BUSQUEDA = Set.of("nombres", "numeroIdentificacion", "creadoEn", "id");
+
+    private static final Sort ORDEN_LISTADO = Sort.by("nombres", "id");
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private DireccionRepository direccionRepository;
+
     @Autowired
     private ClienteMapper clienteMapper;
 
     @Autowired
     private DireccionMapper direccionMapper;
 
+    @Autowired
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Autowired
+    private IndiceSugerencias indiceSugerencias;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlanificadorBusqueda planificador;
+
+    @Autowired
+    private BaseDatosInfo baseDatos;
+
+    @Autowired
+    private CacheBusquedaClientes cacheBusqueda;
+
+    /**
+     * Busca clientes por criterio de búsqueda, paginado.
+     * Sin orden explícito los resultados se ordenan por relevancia
+     * (coincidencia exacta, prefijo, subcadena). Las consultas construyen
+     * ClienteResponse directamente, sin cargar entidades.
+     */
+    @Transactional(readOnly = true)
+    public Page<ClienteResponse> buscarClientes(Long empresaId, String busqueda, Pageable pageable) {
+        return buscarClientes(empresaId, busqueda, ModoBusqueda.SIMPLE, pageable);
+    }
+
     /**
-     * Busca clientes por criterio de búsqueda
+     * Busca clientes en el modo indicado. FULLTEXT combina nombres y dirección matriz
+     * (p. ej. "cliente de Cuenca") y ordena por ts_rank; en bases sin tsvector (H2)
+     * se resuelve como SIMPLE. Las páginas se guardan en CacheBusquedaClientes
+     * hasta que cambie algún cliente de la empresa.
      */
     @Transactional(readOnly = true)
-    public List<ClienteResponse> buscarClientes(Long empresaId, String busqueda) {
-        logger.info("Buscando clientes para empresa {} con criterio: {}", empresaId, busqueda);
+    public Page<ClienteResponse> buscarClientes(Long empresaId, String busqueda, ModoBusqueda modo,
+                                                Pageable pageable) {
+        logger.info("Buscando clientes para empresa {} con criterio: {} (modo {})", empresaId, busqueda, modo);
 
-        List<Cliente> clientes;
+        Pageable pagina = limitarPagina(pageable);
+        if (modo == ModoBusqueda.FULLTEXT && pagina.getSort().isSorted()) {
+            throw BusinessException.ordenNoPermitidoEnTextoCompleto();
+        }
+        return cacheBusqueda.obtener(empresaId, modo, busqueda, pagina,
+                () -> ejecutarBusqueda(empresaId, busqueda, modo, pagina));
+    }
 
-        if (!StringUtils.hasText(busqueda)) {
-            // Si no hay criterio de búsqueda, devolver todos los clientes de la empresa
-            clientes = clienteRepository.findByEmpresaIdWithDirecciones(empresaId);
-        } else {
-            // Buscar por número de identificación o nombre
-            clientes = clienteRepository.buscarClientesPorEmpresaYTexto(empresaId, busqueda.trim());
+    /**
+     * Planifica y ejecuta la búsqueda contra la base de datos (o el índice en memoria)
+     */
+    private Page<ClienteResponse> ejecutarBusqueda(Long empresaId, String busqueda, ModoBusqueda modo,
+                                                   Pageable pagina) {
+        long inicio = System.nanoTime();
+        // El índice en memoria solo conoce el orden por relevancia
+        PlanBusqueda plan = planificador.planificar(busqueda, modo,
+                indiceNgramas.isHabilitado() && pagina.getSort().isUnsorted(),
+                modo == ModoBusqueda.FULLTEXT && baseDatos.isPostgreSql());
+        Estrategia usada = plan.getEstrategia();
+        Page<ClienteResponse> resultado = null;
+
+        if (usada == Estrategia.LISTADO) {
+            Pageable listado = pagina.getSort().isSorted() ? pagina
+                    : PageRequest.of(pagina.getPageNumber(), pagina.getPageSize(), ORDEN_LISTADO);
+            resultado = clienteRepository.findResponsesByEmpresaId(empresaId, listado);
+        } else if (usada == Estrategia.IDENTIFICACION_EXACTA) {
+            // Identificación completa: búsqueda exacta sobre el índice único
+            resultado = clienteRepository.findResponseByIdentificacion(
+                            empresaId, plan.getTipoIdentificacion().getCodigo(), plan.getTexto())
+                    .map(cliente -> paginaUnica(cliente, pagina))
+                    .orElse(null);
+            if (resultado == null) {
+                usada = plan.getRespaldo();
+            }
+        }
+        if (resultado == null) {
+            resultado = buscarPorTexto(empresaId, plan.getTexto(), usada, pagina);
         }
 
-        logger.info("Se encontraron {} clientes", clientes.size());
-        return clienteMapper.toResponseListWithMatriz(clientes);
+        planificador.registrar(plan, usada, System.nanoTime() - inicio);
+        logger.info("Se encontraron {} clientes, página {} con {} (estrategia {})",
+                resultado.getTotalElements(), resultado.getNumber(), resultado.getNumberOfElements(), usada);
+        return resultado;
     }
 
     /**
-     * Crea un nuevo cliente con su dirección matriz
+     * Busca por texto (subcadena o texto completo) con la estrategia indicada
+     */
+    private Page<ClienteResponse> buscarPorTexto(Long empresaId, String texto, Estrategia estrategia,
+                                                 Pageable pagina) {
+        if (estrategia == Estrategia.INDICE_MEMORIA) {
+            // Resolver los IDs en memoria y cargar solo los de la página pedida
+            long[] ids = indiceNgramas.buscar(empresaId, texto);
+            int desde = (int) Math.min(pagina.getOffset(), ids.length);
+            int hasta = Math.min(desde + pagina.getPageSize(), ids.length);
+            return new PageImpl<>(cargarEnOrden(Arrays.copyOfRange(ids, desde, hasta)), pagina, ids.length);
+        }
+        if (estrategia == Estrategia.FONETICA) {
+            Set<String> claves = ClaveFonetica.claves(texto);
+            if (!claves.isEmpty()) {
+                return clienteRepository.buscarResponsesPorClavesFoneticas(empresaId, claves, claves.size(), pagina);
+            }
+            // Criterio sin palabras codificables (p. ej. solo dígitos): se busca por subcadena
+        }
+        if (estrategia == Estrategia.TEXTO_COMPLETO) {
+            // La consulta nativa devuelve los IDs de la página ya ordenados por ts_rank
+            Page<Long> ids = clienteRepository.buscarIdsPorTextoCompleto(empresaId, texto, pagina);
+            long[] idsPagina = ids.getContent().stream().mapToLong(Long::longValue).toArray();
+            return new PageImpl<>(cargarEnOrden(idsPagina), pagina, ids.getTotalElements());
+        }
+        // La identificación se compara tal cual (en minúsculas) y los nombres normalizados
+        String patronIdentificacion = TextoBusqueda.patronIdentificacion(texto);
+        String patron = TextoBusqueda.patronContiene(texto);
+        if (pagina.getSort().isSorted()) {
+            return clienteRepository.buscarResponsesPorEmpresaYTexto(empresaId, patronIdentificacion, patron, pagina);
+        }
+        return clienteRepository.buscarResponsesPorRelevancia(empresaId, TextoBusqueda.identificacion(texto),
+                TextoBusqueda.prefijoIdentificacion(texto), patronIdentificacion, TextoBusqueda.normalizar(texto),
+                TextoBusqueda.patronPrefijo(texto), patron, pagina);
+    }
+
+    /**
+     * Aplica el tamaño máximo de página y valida los campos de orden
+     */
+    static Pageable limitarPagina(Pageable pageable) {
+        for (Sort.Order orden : pageable.getSort()) {
+            if (!CAMPOS_ORDEN_BUSQUEDA.contains(orden.getProperty())) {
+                throw BusinessException.ordenNoPermitido(orden.getProperty());
+            }
+        }
+        int tamano = Math.max(1, Math.min(pageable.getPageSize(), TAMANO_MAXIMO_PAGINA));
+        return PageRequest.of(pageable.getPageNumber(), tamano, pageable.getSort());
+    }
+
+    private static Page<ClienteResponse> paginaUnica(ClienteResponse cliente, Pageable pagina) {
+        List<ClienteResponse> contenido = pagina.getOffset() == 0 ? List.of(cliente) : List.of();
+        return new PageImpl<>(contenido, pagina, 1);
+    }
+
+    /**
+     * Obtiene sugerencias de autocompletado por prefijo de nombre o identificación
+     */
+    @Transactional(readOnly = true)
+    public List<SugerenciaResponse> sugerirClientes(Long empresaId, String prefijo, int limite) {
+        int limiteAplicado = Math.max(1, Math.min(limite, LIMITE_MAXIMO_SUGERENCIAS));
+        if (indiceSugerencias.isHabilitado()) {
+            return indiceSugerencias.sugerir(empresaId, prefijo, limiteAplicado);
+        }
+        if (TextoBusqueda.normalizar(prefijo).isEmpty()) {
+            return List.of();
+        }
+        // Sin índice en memoria: nombres primero y luego identificaciones, hasta el límite
+        Pageable primeras = PageRequest.of(0, limiteAplicado);
+        List<SugerenciaResponse> sugerencias = new ArrayList<>(clienteRepository.sugerirPorNombre(empresaId,
+                TextoBusqueda.patronPrefijo(prefijo), "% " + TextoBusqueda.patronPrefijo(prefijo), primeras));
+        if (sugerencias.size() < limiteAplicado) {
+            sugerencias.addAll(clienteRepository.sugerirPorIdentificacion(empresaId,
+                    TextoBusqueda.prefijoIdentificacion(prefijo),
+                    PageRequest.of(0, limiteAplicado - sugerencias.size())));
+        }
+        return sugerencias;
+    }
+
+    /**
+     * Convierte filas cliente + matriz ya resueltas por JOIN
+     */
+    private List<ClienteResponse> mapearFilas(List<ClienteConMatriz> filas) {
+        List<Cliente> clientes = new ArrayList<>(filas.size());
+        Map<Long, Direccion> matrices = new HashMap<>();
+        for (ClienteConMatriz fila : filas) {
+            clientes.add(fila.getCliente());
+            if (fila.getMatriz() != null) {
+                matrices.put(fila.getCliente().getId(), fila.getMatriz());
+            }
+        }
+        return clienteMapper.toResponseListWithMatriz(clientes, matrices);
+    }
+
+    /**
+     * Carga los clientes indicados conservando el orden de los IDs
+     */
+    private List<ClienteResponse> cargarEnOrden(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> listaIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            listaIds.add(id);
+        }
+        Map<Long, ClienteResponse> porId = clienteRepository.findResponsesByIdIn(listaIds).stream()
+                .collect(Collectors.toMap(ClienteResponse::getId, Function.identity()));
+        return listaIds.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Devuelve, en el orden recibido y sin repetir, las identificaciones que ya
+     * pertenecen a un cliente de la empresa. Una sola consulta para toda la lista.
+     */
+    @Transactional(readOnly = true)
+    public List<IdentificacionCliente> buscarIdentificacionesExistentes(
+            Long empresaId, List<IdentificacionCliente> identificaciones) {
+        logger.debug("Verificando {} identificaciones en empresa {}", identificaciones.size(), empresaId);
+
+        Set<IdentificacionCliente> existentes =
+                clienteRepository.buscarIdentificacionesExistentes(empresaId, identificaciones);
+        return identificaciones.stream()
+                .filter(existentes::contains)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Crea un nuevo cliente con su dirección matriz.
+     * En PostgreSQL la verificación de duplicados la hace la propia inserción
+     * (ON CONFLICT), así dos creaciones simultáneas nunca terminan en un error genérico.
      */
     public ClienteResponse crearCliente(ClienteCreateRequest request) {
         logger.info("Creando nuevo cliente: {}", request.getNumeroIdentificacion());
@@ -72,8 +320,10 @@ public class ClienteService {
             throw BusinessException.tipoIdentificacionInvalido(request.getTipoIdentificacion());
         }
 
-        // Verificar que no exista otro cliente con la misma identificación
-        if (clienteRepository.existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion(
+        // Verificar que no exista otro cliente con la misma identificación; en PostgreSQL
+        // lo hace la propia inserción (ON CONFLICT), sin consulta previa ni carrera
+        boolean postgreSql = baseDatos.isPostgreSql();
+        if (!postgreSql && clienteRepository.existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion(
                 request.getEmpresaId(), request.getTipoIdentificacion(), request.getNumeroIdentificacion())) {
             throw BusinessException.clienteYaExiste(request.getNumeroIdentificacion());
         }
@@ -86,7 +336,17 @@ public class ClienteService {
         cliente.agregarDireccion(direccionMatriz);
 
         // Guardar
-        Cliente clienteGuardado = clienteRepository.save(cliente);
+        Cliente clienteGuardado;
+        if (postgreSql) {
+            if (!clienteRepository.insertarSiNoExiste(cliente)) {
+                throw BusinessException.clienteYaExiste(request.getNumeroIdentificacion());
+            }
+            clienteGuardado = cliente;
+        } else {
+            clienteGuardado = clienteRepository.save(cliente);
+        }
+        eventPublisher.publishEvent(ClienteModificadoEvent.creado(clienteGuardado.getEmpresaId(),
+                clienteGuardado.getId(), clienteGuardado.getNombres(), clienteGuardado.getNumeroIdentificacion()));
 
         logger.info("Cliente creado exitosamente con ID: {}", clienteGuardado.getId());
         return clienteMapper.toResponse(clienteGuardado);
@@ -118,25 +378,75 @@ public class ClienteService {
 
         // Guardar
         Cliente clienteActualizado = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(ClienteModificadoEvent.actualizado(clienteActualizado.getEmpresaId(),
+                clienteActualizado.getId(), clienteActualizado.getNombres(), clienteActualizado.getNumeroIdentificacion()));
 
         logger.info("Cliente actualizado exitosamente: {}", id);
         return clienteMapper.toResponse(clienteActualizado);
     }
 
     /**
-     * Elimina un cliente y todas sus direcciones
+     * Elimina un cliente y todas sus direcciones (ON DELETE CASCADE, sin cargarlas)
      */
     public void eliminarCliente(Long id) {
         logger.info("Eliminando cliente con ID: {}", id);
 
-        Cliente cliente = clienteRepository.findById(id)
+        // Solo hacen falta id y empresa: no se carga la entidad ni su colección de direcciones
+        ClienteEmpresa cliente = clienteRepository.findByIdIn(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> ResourceNotFoundException.cliente(id));
 
-        clienteRepository.delete(cliente);
+        // Las direcciones se borran en cascada: sus ids van en el evento para los demás nodos
+        List<Long> direccionIds = direccionRepository.findIdsByClienteIdIn(List.of(id)).stream()
+                .map(DireccionCliente::getId)
+                .toList();
+        clienteRepository.eliminarPorIds(List.of(id));
+        eventPublisher.publishEvent(ClienteModificadoEvent.eliminado(cliente.getEmpresaId(), id)
+                .conDirecciones(direccionIds));
 
         logger.info("Cliente eliminado exitosamente: {}", id);
     }
 
+    /**
+     * Elimina varios clientes con sus direcciones con un solo DELETE.
+     * Si alguno no existe no se elimina ninguno.
+     * @return Número de clientes eliminados
+     */
+    public int eliminarClientes(List<Long> ids) {
+        logger.info("Eliminando {} clientes en lote", ids.size());
+
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        if (distintos.size() > TAMANO_MAXIMO_LOTE) {
+            throw BusinessException.loteDemasiadoGrande(TAMANO_MAXIMO_LOTE);
+        }
+        if (distintos.isEmpty()) {
+            return 0;
+        }
+
+        List<ClienteEmpresa> encontrados = clienteRepository.findByIdIn(distintos);
+        if (encontrados.size() != distintos.size()) {
+            encontrados.forEach(encontrado -> distintos.remove(encontrado.getId()));
+            throw ResourceNotFoundException.cliente(distintos.iterator().next());
+        }
+
+        Map<Long, List<Long>> direccionesPorCliente = direccionRepository.findIdsByClienteIdIn(distintos).stream()
+                .collect(Collectors.groupingBy(DireccionCliente::getClienteId,
+                        Collectors.mapping(DireccionCliente::getId, Collectors.toList())));
+        int eliminados = clienteRepository.eliminarPorIds(distintos);
+        // Un evento por empresa: una invalidación y un NOTIFY para todo el lote
+        Map<Long, List<ClienteModificadoEvent>> cambiosPorEmpresa = new LinkedHashMap<>();
+        for (ClienteEmpresa eliminado : encontrados) {
+            cambiosPorEmpresa.computeIfAbsent(eliminado.getEmpresaId(), empresaId -> new ArrayList<>())
+                    .add(ClienteModificadoEvent.eliminado(eliminado.getEmpresaId(), eliminado.getId())
+                            .conDirecciones(direccionesPorCliente.getOrDefault(eliminado.getId(), List.of())));
+        }
+        cambiosPorEmpresa.forEach((empresaId, cambios) ->
+                eventPublisher.publishEvent(new ClientesModificadosEvent(empresaId, cambios)));
+
+        logger.info("Se eliminaron {} clientes", eliminados);
+        return eliminados;
+    }
+
     /**
      * Obtiene un cliente por ID con todas sus direcciones
      */
@@ -144,7 +454,8 @@ public class ClienteService {
     public ClienteResponse obtenerClientePorId(Long id) {
         logger.info("Obteniendo cliente con ID: {}", id);
 
-        Cliente cliente = clienteRepository.findByIdWithDirecciones(id)
+        // findById y la colección de direcciones se resuelven desde la caché de segundo nivel
+        Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.cliente(id));
 
         return clienteMapper.toResponse(cliente);
@@ -157,9 +468,47 @@ public class ClienteService {
     public Page<ClienteResponse> obtenerClientesPorEmpresa(Long empresaId, Pageable pageable) {
         logger.info("Obteniendo clientes paginados para empresa: {}", empresaId);
 
-        Page<Cliente> clientes = clienteRepository.findByEmpresaId(empresaId, pageable);
+        return clienteRepository.findResponsesByEmpresaId(empresaId, pageable);
+    }
+
+    /**
+     * Obtiene los clientes de una empresa paginando por cursor (keyset).
+     * El costo de cada página no depende de su posición; el total solo se
+     * calcula si se pide.
+     * @param cursor Cursor devuelto por la página anterior (null para la primera)
+     * @param orden "nombres" (por defecto) o "creadoEn"
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<ClienteResponse> obtenerClientesPorCursor(
+            Long empresaId, String cursor, int tamano, String orden, boolean incluirTotal) {
+        CursorClientes.Orden ordenCursor = CursorClientes.Orden.desde(orden);
+        int tamanoAplicado = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA));
+        logger.info("Obteniendo clientes por cursor para empresa {} (orden {}, tamaño {})",
+                empresaId, ordenCursor, tamanoAplicado);
+
+        // Se pide una fila extra para saber si hay otra página sin contar
+        Pageable limite = PageRequest.of(0, tamanoAplicado + 1);
+        List<ClienteConMatriz> filas;
+        if (!StringUtils.hasText(cursor)) {
+            filas = ordenCursor == CursorClientes.Orden.NOMBRES
+                    ? clienteRepository.buscarPrimerosPorNombres(empresaId, limite)
+                    : clienteRepository.buscarPrimerosPorCreacion(empresaId, limite);
+        } else {
+            CursorClientes desde = CursorClientes.decodificar(cursor, ordenCursor);
+            filas = ordenCursor == CursorClientes.Orden.NOMBRES
+                    ? clienteRepository.buscarSiguientesPorNombres(empresaId, desde.getNombres(), desde.getId(), limite)
+                    : clienteRepository.buscarSiguientesPorCreacion(empresaId, desde.getCreadoEn(), desde.getId(), limite);
+        }
+
+        String siguienteCursor = null;
+        if (filas.size() > tamanoAplicado) {
+            filas = filas.subList(0, tamanoAplicado);
+            siguienteCursor = CursorClientes.despuesDe(
+                    filas.get(tamanoAplicado - 1).getCliente(), ordenCursor).codificar();
+        }
+        Long total = incluirTotal ? clienteRepository.countByEmpresaId(empresaId) : null;
 
-        return clientes.map(clienteMapper::toResponseWithMatriz);
+        return new PaginaCursorResponse<>(mapearFilas(filas), siguienteCursor, total);
     }
 
     /**
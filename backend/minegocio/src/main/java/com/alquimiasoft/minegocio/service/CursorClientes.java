@@ -0,0 +1,110 @@
+package com.alquimiasoft.minegocio.service;
+
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Cursor opaco para recorrer los clientes de una empresa por keyset.
+ *
+ * Guarda el orden usado y la clave del último cliente entregado
+ * ((nombres, id) o (creadoEn, id)); la siguiente página empieza justo
+ * después de esa clave sin importar cuántas filas haya antes.
+ */
+public final class CursorClientes {
+
+    /**
+     * Órdenes soportados, cada uno respaldado por un índice (empresa_id, campo, id)
+     */
+    public enum Orden {
+        NOMBRES,
+        CREADO_EN;
+
+        /**
+         * @param valor "nombres" o "creadoEn" (null usa NOMBRES)
+         */
+        public static Orden desde(String valor) {
+            if (valor == null || valor.isBlank() || "nombres".equalsIgnoreCase(valor)) {
+                return NOMBRES;
+            }
+            if ("creadoEn".equalsIgnoreCase(valor) || "creado_en".equalsIgnoreCase(valor)) {
+                return CREADO_EN;
+            }
+            throw BusinessException.ordenNoPermitido(valor);
+        }
+    }
+
+    private static final char SEPARADOR = ':';
+
+    private final Orden orden;
+    private final Long id;
+    private final String nombres;
+    private final LocalDateTime creadoEn;
+
+    private CursorClientes(Orden orden, Long id, String nombres, LocalDateTime creadoEn) {
+        this.orden = orden;
+        this.id = id;
+        this.nombres = nombres;
+        this.creadoEn = creadoEn;
+    }
+
+    /**
+     * Crea el cursor que apunta justo después del cliente indicado
+     */
+    public static CursorClientes despuesDe(Cliente cliente, Orden orden) {
+        return new CursorClientes(orden, cliente.getId(), cliente.getNombres(), cliente.getCreadoEn());
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * @throws BusinessException si el cursor no es válido o fue creado con otro orden
+     */
+    public static CursorClientes decodificar(String cursor, Orden orden) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // orden:id:valor (el valor va al final porque puede contener ':')
+            String[] partes = texto.split(String.valueOf(SEPARADOR), 3);
+            if (partes.length != 3 || Orden.valueOf(partes[0]) != orden) {
+                throw BusinessException.cursorInvalido();
+            }
+            Long id = Long.valueOf(partes[1]);
+            return orden == Orden.NOMBRES
+                    ? new CursorClientes(orden, id, partes[2], null)
+                    : new CursorClientes(orden, id, null, LocalDateTime.parse(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw BusinessException.cursorInvalido();
+        }
+    }
+
+    public String codificar() {
+        String valor = orden == Orden.NOMBRES ? nombres : creadoEn.toString();
+        String texto = orden.name() + SEPARADOR + id + SEPARADOR + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Orden getOrden() {
+        return orden;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNombres() {
+        return nombres;
+    }
+
+    public LocalDateTime getCreadoEn() {
+        return creadoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorClientes{" + orden.name().toLowerCase(Locale.ROOT) + ", id=" + id + '}';
+    }
+}
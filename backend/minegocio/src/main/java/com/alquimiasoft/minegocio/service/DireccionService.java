@@ -1,9 +1,13 @@
 package com.alquimiasoft.minegocio.service;
 
 import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionLoteRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionResponse;
 import com.alquimiasoft.minegocio.entity.Cliente;
 import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.exception.BusinessException;
 import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.mapper.DireccionMapper;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
@@ -11,10 +15,14 @@ import com.alquimiasoft.minegocio.repository.DireccionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Servicio para la gestión de direcciones de clientes
@@ -25,6 +33,11 @@ public class DireccionService {
 
     private static final Logger logger = LoggerFactory.getLogger(DireccionService.class);
 
+    /**
+     * Máximo de direcciones por lote (una franquicia registra entre 50 y 300 sucursales)
+     */
+    public static final int TAMANO_MAXIMO_LOTE = 1000;
+
     @Autowired
     private DireccionRepository direccionRepository;
 
@@ -34,35 +47,119 @@ public class DireccionService {
     @Autowired
     private DireccionMapper direccionMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Crea una nueva dirección adicional para un cliente
+     * Crea una nueva dirección adicional para un cliente.
+     * Solo se persiste la dirección nueva: la colección de direcciones del cliente no
+     * se inicializa ni se fusiona el agregado, y el id sale del generador sin flush.
      */
     public DireccionResponse crearDireccionAdicional(DireccionCreateRequest request) {
         logger.info("Creando nueva dirección adicional para cliente ID: {}", request.getClienteId());
 
-        // Verificar que el cliente existe
+        // Verificar que el cliente existe (una fila o la caché de segundo nivel, sin sus direcciones)
         Cliente cliente = clienteRepository.findById(request.getClienteId())
                 .orElseThrow(() -> ResourceNotFoundException.cliente(request.getClienteId()));
 
-        // Crear la dirección adicional (no es matriz)
+        // Crear la dirección adicional (no es matriz) desde el lado dueño de la relación;
+        // auto_evict_collection_cache descarta la colección cacheada del cliente
         Direccion nuevaDireccion = direccionMapper.toEntity(request);
-        
-        // Vincular la dirección al cliente usando el método que mantiene la relación bidireccional
-        cliente.agregarDireccion(nuevaDireccion);
-        
-        // Guardar el cliente (cascada guarda la dirección automáticamente)
-        Cliente clienteActualizado = clienteRepository.save(cliente);
-        
-        // Obtener la dirección guardada desde el cliente actualizado
-        Direccion direccionGuardada = clienteActualizado.getDirecciones().stream()
-                .filter(dir -> !dir.isEsMatriz())
-                .reduce((primera, segunda) -> segunda) // Obtener la última agregada
-                .orElse(nuevaDireccion);
+        nuevaDireccion.setCliente(cliente);
+        Direccion direccionGuardada = direccionRepository.save(nuevaDireccion);
+
+        // Invalida la caché de búsqueda de la empresa tras el commit; ninguna dirección
+        // existente cambió, solo las consultas y la colección del cliente
+        eventPublisher.publishEvent(ClienteModificadoEvent.actualizado(cliente.getEmpresaId(),
+                cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion()).conDirecciones(List.of()));
 
         logger.info("Dirección adicional creada exitosamente y vinculada al cliente ID: {}", request.getClienteId());
         return direccionMapper.toResponse(direccionGuardada);
     }
 
+    /**
+     * Registra varias direcciones de un cliente en una transacción. Los INSERT van en
+     * batch de JDBC (ids por secuencia pooled-lo) y no se carga la colección del cliente.
+     * Si se indica nuevaMatriz, la matriz actual pasa a adicional antes de insertar la nueva.
+     * @return Las direcciones creadas, en el orden recibido
+     */
+    public List<DireccionResponse> crearDireccionesEnLote(Long clienteId, DireccionLoteRequest request) {
+        List<DireccionRequest> direcciones = request.getDirecciones();
+        Integer nuevaMatriz = request.getNuevaMatriz();
+        logger.info("Creando {} direcciones en lote para cliente ID: {}", direcciones.size(), clienteId);
+
+        if (direcciones.size() > TAMANO_MAXIMO_LOTE) {
+            throw BusinessException.loteDemasiadoGrande(TAMANO_MAXIMO_LOTE);
+        }
+        if (nuevaMatriz != null && (nuevaMatriz < 0 || nuevaMatriz >= direcciones.size())) {
+            throw BusinessException.posicionMatrizInvalida(nuevaMatriz);
+        }
+
+        Cliente cliente = clienteRepository.findById(clienteId)
+                .orElseThrow(() -> ResourceNotFoundException.cliente(clienteId));
+
+        // La matriz actual deja de serlo: es la única dirección existente que cambia
+        List<Long> modificadas = new ArrayList<>(1);
+        if (nuevaMatriz != null) {
+            direccionRepository.findMatrizResponseByClienteId(clienteId)
+                    .ifPresent(matriz -> modificadas.add(matriz.getId()));
+            direccionRepository.quitarMatriz(clienteId);
+        }
+
+        List<Direccion> nuevas = new ArrayList<>(direcciones.size());
+        for (int i = 0; i < direcciones.size(); i++) {
+            Direccion direccion = direccionMapper.toEntity(direcciones.get(i), nuevaMatriz != null && nuevaMatriz == i);
+            direccion.setCliente(cliente);
+            nuevas.add(direccion);
+        }
+        List<Direccion> guardadas = direccionRepository.saveAll(nuevas);
+
+        eventPublisher.publishEvent(ClienteModificadoEvent.actualizado(cliente.getEmpresaId(),
+                cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion()).conDirecciones(modificadas));
+
+        logger.info("Se crearon {} direcciones para el cliente {}", guardadas.size(), clienteId);
+        return direccionMapper.toResponseList(guardadas);
+    }
+
+    /**
+     * Elimina varias direcciones adicionales de un cliente con un solo DELETE.
+     * Si alguna no existe, es de otro cliente o es la matriz, no se elimina ninguna.
+     * @return Número de direcciones eliminadas
+     */
+    public int eliminarDireccionesEnLote(Long clienteId, List<Long> direccionIds) {
+        logger.info("Eliminando {} direcciones en lote del cliente ID: {}", direccionIds.size(), clienteId);
+
+        Set<Long> ids = new LinkedHashSet<>(direccionIds);
+        if (ids.size() > TAMANO_MAXIMO_LOTE) {
+            throw BusinessException.loteDemasiadoGrande(TAMANO_MAXIMO_LOTE);
+        }
+
+        Cliente cliente = clienteRepository.findById(clienteId)
+                .orElseThrow(() -> ResourceNotFoundException.cliente(clienteId));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> adicionales = direccionRepository.findIdsAdicionalesByClienteIdAndIdIn(clienteId, ids);
+        if (adicionales.size() != ids.size()) {
+            ids.removeAll(adicionales);
+            Long direccionId = ids.iterator().next();
+            if (direccionRepository.findByClienteIdAndEsMatrizTrue(clienteId)
+                    .map(matriz -> ids.contains(matriz.getId())).orElse(false)) {
+                throw new IllegalArgumentException("No se puede eliminar la dirección matriz del cliente");
+            }
+            throw ResourceNotFoundException.direccion(direccionId);
+        }
+
+        int eliminadas = direccionRepository.eliminarPorClienteIdAndIdIn(clienteId, ids);
+
+        eventPublisher.publishEvent(ClienteModificadoEvent.actualizado(cliente.getEmpresaId(),
+                cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion()).conDirecciones(ids));
+
+        logger.info("Se eliminaron {} direcciones del cliente {}", eliminadas, clienteId);
+        return eliminadas;
+    }
+
     /**
      * Obtiene todas las direcciones de un cliente (matriz + adicionales)
      */
@@ -75,10 +172,11 @@ public class DireccionService {
             throw ResourceNotFoundException.cliente(clienteId);
         }
 
-        List<Direccion> direcciones = direccionRepository.findByClienteIdOrderByEsMatrizDescCreadoEnAsc(clienteId);
+        // Proyección directa: no se hidratan entidades Direccion
+        List<DireccionResponse> direcciones = direccionRepository.findResponsesByClienteId(clienteId);
 
         logger.info("Se encontraron {} direcciones para el cliente {}", direcciones.size(), clienteId);
-        return direccionMapper.toResponseList(direcciones);
+        return direcciones;
     }
 
     /**
@@ -112,10 +210,8 @@ public class DireccionService {
             throw ResourceNotFoundException.cliente(clienteId);
         }
 
-        Direccion direccionMatriz = direccionRepository.findByClienteIdAndEsMatrizTrue(clienteId)
+        return direccionRepository.findMatrizResponseByClienteId(clienteId)
                 .orElseThrow(() -> ResourceNotFoundException.direccionMatriz(clienteId));
-
-        return direccionMapper.toResponse(direccionMatriz);
     }
 
     /**
@@ -147,6 +243,12 @@ public class DireccionService {
 
         direccionRepository.delete(direccion);
 
+        // Invalida las cachés locales y las de los demás nodos tras el commit
+        Cliente cliente = direccion.getCliente();
+        eventPublisher.publishEvent(ClienteModificadoEvent.actualizado(cliente.getEmpresaId(),
+                cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion())
+                .conDirecciones(List.of(direccionId)));
+
         logger.info("Dirección adicional eliminada exitosamente: {}", direccionId);
     }
 
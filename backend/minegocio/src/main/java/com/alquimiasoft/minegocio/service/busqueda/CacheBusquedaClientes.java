@@ -0,0 +1,172 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de páginas de resultados de /api/clientes/buscar.
+ *
+ * Acotada por peso (un punto por entrada más uno por cliente de la página) con
+ * expulsión W-TinyLFU y expiración por TTL. Cada empresa tiene una generación que
+ * forma parte de la clave: al confirmarse un cambio de cliente o dirección se
+ * incrementa, así una búsqueda que empezó antes del cambio nunca deja un resultado
+ * viejo visible. Las métricas cache.gets, cache.evictions, cache.size, etc. se
+ * publican con la etiqueta cache=clientes.busqueda.
+ */
+@Component
+public class CacheBusquedaClientes {
+
+    public static final String NOMBRE = "clientes.busqueda";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheBusquedaClientes.class);
+
+    private final boolean habilitado;
+    private final Cache<Clave, Page<ClienteResponse>> cache;
+    private final Map<Long, AtomicLong> generaciones = new ConcurrentHashMap<>();
+
+    public CacheBusquedaClientes(MeterRegistry meterRegistry,
+                                 @Value("${minegocio.busqueda.cache.habilitado:true}") boolean habilitado,
+                                 @Value("${minegocio.busqueda.cache.peso-maximo:50000}") long pesoMaximo,
+                                 @Value("${minegocio.busqueda.cache.ttl:PT5M}") Duration ttl) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((Clave clave, Page<ClienteResponse> pagina) -> 1 + pagina.getNumberOfElements())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE);
+    }
+
+    /**
+     * Devuelve la página en caché o la calcula con la búsqueda indicada
+     * @param buscar Consulta a ejecutar si no hay entrada vigente
+     */
+    public Page<ClienteResponse> obtener(Long empresaId, ModoBusqueda modo, String busqueda, Pageable pagina,
+                                         Supplier<Page<ClienteResponse>> buscar) {
+        if (!habilitado) {
+            return buscar.get();
+        }
+        // La generación se lee antes de consultar: si hay un cambio en medio, el
+        // resultado queda guardado bajo una generación que ya nadie pide. El criterio
+        // va sin normalizar: la identificación se compara con el texto tal cual
+        Clave clave = new Clave(empresaId, generacion(empresaId).get(), modo,
+                busqueda != null ? busqueda : "", pagina.getPageNumber(), pagina.getPageSize(),
+                pagina.getSort().toString());
+        Page<ClienteResponse> resultado = cache.getIfPresent(clave);
+        if (resultado == null) {
+            resultado = buscar.get();
+            cache.put(clave, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta los resultados en caché de una empresa
+     */
+    public void invalidar(Long empresaId) {
+        generacion(empresaId).incrementAndGet();
+        cache.asMap().keySet().removeIf(clave -> clave.empresaId.equals(empresaId));
+        logger.debug("Caché de búsqueda invalidada para empresa {}", empresaId);
+    }
+
+    /**
+     * Descarta los resultados de todas las empresas
+     */
+    public void invalidarTodo() {
+        generaciones.values().forEach(AtomicLong::incrementAndGet);
+        cache.invalidateAll();
+        logger.debug("Caché de búsqueda invalidada para todas las empresas");
+    }
+
+    /**
+     * Invalida la empresa del cliente modificado una vez confirmado el cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        if (habilitado) {
+            invalidar(event.getEmpresaId());
+        }
+    }
+
+    /**
+     * Invalida una sola vez la empresa de un lote de cambios
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        if (habilitado) {
+            invalidar(event.getEmpresaId());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    long tamano() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private AtomicLong generacion(Long empresaId) {
+        return generaciones.computeIfAbsent(empresaId, id -> new AtomicLong());
+    }
+
+    /**
+     * Clave de una página en caché
+     */
+    private static final class Clave {
+
+        private final Long empresaId;
+        private final long generacion;
+        private final ModoBusqueda modo;
+        private final String busqueda;
+        private final int pagina;
+        private final int tamano;
+        private final String orden;
+
+        Clave(Long empresaId, long generacion, ModoBusqueda modo, String busqueda,
+              int pagina, int tamano, String orden) {
+            this.empresaId = empresaId;
+            this.generacion = generacion;
+            this.modo = modo;
+            this.busqueda = busqueda;
+            this.pagina = pagina;
+            this.tamano = tamano;
+            this.orden = orden;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave otra)) return false;
+            return generacion == otra.generacion && pagina == otra.pagina && tamano == otra.tamano
+                    && empresaId.equals(otra.empresaId) && modo == otra.modo
+                    && busqueda.equals(otra.busqueda) && orden.equals(otra.orden);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(empresaId, generacion, modo, busqueda, pagina, tamano, orden);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteResumen;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+/**
+ * Índice invertido de trigramas en memoria, por empresa, sobre nombres y
+ * número de identificación de los clientes.
+ *
+ * El índice de cada empresa se construye en la primera búsqueda y luego se
+ * mantiene con los eventos {@link ClienteModificadoEvent} publicados por
+ * ClienteService tras cada commit. Está deshabilitado por defecto
+ * (minegocio.busqueda.indice-memoria.habilitado) porque ocupa memoria
+ * proporcional al número de clientes.
+ *
+ * Los índices se guardan en una caché Caffeine acotada por peso (una unidad por
+ * cliente, medido al terminar de construir o al aplicar un lote) que además
+ * descarta las empresas sin búsquedas durante el tiempo de inactividad. Las
+ * métricas se publican con la etiqueta cache=clientes.indice-memoria.
+ */
+@Component
+public class IndiceNgramasClientes {
+
+    public static final String NOMBRE = "clientes.indice-memoria";
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceNgramasClientes.class);
+
+    static final int N = 3;
+
+    private final ClienteRepository clienteRepository;
+    private final boolean habilitado;
+    private final Cache<Long, IndiceEmpresa> indices;
+
+    public IndiceNgramasClientes(ClienteRepository clienteRepository, MeterRegistry meterRegistry,
+                                 @Value("${minegocio.busqueda.indice-memoria.habilitado:false}") boolean habilitado,
+                                 @Value("${minegocio.busqueda.indice-memoria.peso-maximo:200000}") long pesoMaximo,
+                                 @Value("${minegocio.busqueda.indice-memoria.inactividad:PT30M}") Duration inactividad) {
+        this.clienteRepository = clienteRepository;
+        this.habilitado = habilitado;
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((Long empresaId, IndiceEmpresa indice) -> 1 + indice.documentos.size())
+                .expireAfterAccess(inactividad)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, NOMBRE);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Busca los clientes de una empresa cuyo nombre o identificación contienen el texto
+     * @param empresaId ID de la empresa
+     * @param busqueda Texto a buscar; como en la búsqueda SQL se compara normalizado con
+     *                 los nombres y solo en minúsculas con la identificación
+     * @return IDs de los clientes que coinciden, ordenados por relevancia: coincidencia
+     *         exacta, luego por prefijo y luego por subcadena; a igual relevancia por nombre
+     */
+    public long[] buscar(Long empresaId, String busqueda) {
+        String[] textos = {TextoBusqueda.normalizar(busqueda), TextoBusqueda.identificacion(busqueda)};
+        IndiceEmpresa indice = obtenerIndice(empresaId);
+        return indice.buscar(textos);
+    }
+
+    /**
+     * Descarta el índice de una empresa; se reconstruye en la siguiente búsqueda
+     */
+    public void invalidar(Long empresaId) {
+        indices.invalidate(empresaId);
+    }
+
+    /**
+     * Descarta el índice de todas las empresas
+     */
+    public void invalidarTodo() {
+        indices.invalidateAll();
+    }
+
+    /**
+     * Aplica en el índice los cambios de un cliente ya confirmados en base de datos
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        if (!habilitado) {
+            return;
+        }
+        IndiceEmpresa indice = indices.asMap().get(event.getEmpresaId());
+        if (indice == null) {
+            // Aún no construido: la próxima construcción ya leerá el cambio
+            return;
+        }
+        indice.aplicar(List.of(event));
+    }
+
+    /**
+     * Aplica los cambios de un lote con una sola toma del bloqueo de escritura y vuelve a pesar el índice
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        if (!habilitado) {
+            return;
+        }
+        IndiceEmpresa indice = indices.asMap().get(event.getEmpresaId());
+        if (indice != null && indice.aplicar(event.getCambios())) {
+            indices.asMap().replace(event.getEmpresaId(), indice, indice);
+        }
+    }
+
+    long tamano() {
+        indices.cleanUp();
+        return indices.estimatedSize();
+    }
+
+    private IndiceEmpresa obtenerIndice(Long empresaId) {
+        // El índice se registra antes de leer la base de datos: los eventos que lleguen
+        // mientras se construye esperan el bloqueo de escritura y se aplican después.
+        // Al terminar se vuelve a pesar
+        IndiceEmpresa indice = indices.get(empresaId, id -> new IndiceEmpresa());
+        if (!indice.listo) {
+            try {
+                if (indice.construir(empresaId, clienteRepository)) {
+                    indices.asMap().replace(empresaId, indice, indice);
+                }
+            } catch (RuntimeException e) {
+                indices.asMap().remove(empresaId, indice);
+                throw e;
+            }
+        }
+        return indice;
+    }
+
+    /**
+     * Codifica tres caracteres en un long (16 bits por carácter)
+     */
+    static long clave(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32)
+                | ((long) texto.charAt(inicio + 1) << 16)
+                | texto.charAt(inicio + 2);
+    }
+
+    /**
+     * Índice de una sola empresa. Las búsquedas toman el bloqueo de lectura y
+     * las modificaciones (construcción incluida) el de escritura. Cada documento
+     * guarda dos campos, nombres normalizados e identificación en minúsculas, y
+     * cada búsqueda trae el texto preparado para cada campo en el mismo orden.
+     */
+    static final class IndiceEmpresa {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, String[]> documentos = new HashMap<>();
+        private final Map<Long, ListaIds> posteos = new HashMap<>();
+        private volatile boolean listo;
+
+        /**
+         * @return true si esta llamada construyó el índice
+         */
+        boolean construir(Long empresaId, ClienteRepository repository) {
+            lock.writeLock().lock();
+            try {
+                if (listo) {
+                    return false;
+                }
+                long inicio = System.nanoTime();
+                List<ClienteResumen> clientes = repository.findResumenByEmpresaId(empresaId);
+                for (ClienteResumen cliente : clientes) {
+                    indexarSinBloqueo(cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion());
+                }
+                listo = true;
+                logger.info("Índice de n-gramas construido para empresa {}: {} clientes, {} trigramas en {} ms",
+                        empresaId, documentos.size(), posteos.size(), (System.nanoTime() - inicio) / 1_000_000);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] buscar(String[] textos) {
+            lock.readLock().lock();
+            try {
+                if (textos[0].isEmpty() && textos[1].isEmpty()) {
+                    return todos();
+                }
+                if (textos[0].length() < N || textos[1].length() < N) {
+                    return recorrer(textos);
+                }
+
+                // Los trigramas pueden venir de campos distintos o en otro orden:
+                // se verifica cada candidato contra el texto de cada campo
+                long[] candidatos = LongStream.concat(
+                                Arrays.stream(candidatos(textos[0])), Arrays.stream(candidatos(textos[1])))
+                        .distinct()
+                        .toArray();
+                int encontrados = 0;
+                for (long id : candidatos) {
+                    if (coincide(documentos.get(id), textos)) {
+                        candidatos[encontrados++] = id;
+                    }
+                }
+                return ordenarPorRelevancia(Arrays.copyOf(candidatos, encontrados), textos);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private long[] candidatos(String texto) {
+            List<ListaIds> listas = new ArrayList<>(texto.length() - N + 1);
+            for (int i = 0; i + N <= texto.length(); i++) {
+                ListaIds lista = posteos.get(clave(texto, i));
+                if (lista == null) {
+                    return new long[0];
+                }
+                listas.add(lista);
+            }
+            return ListaIds.intersectar(listas.toArray(new ListaIds[0]));
+        }
+
+        /**
+         * @return true si el índice ya estaba construido y se aplicaron los cambios
+         */
+        boolean aplicar(List<ClienteModificadoEvent> cambios) {
+            lock.writeLock().lock();
+            try {
+                if (!listo) {
+                    return false;
+                }
+                for (ClienteModificadoEvent cambio : cambios) {
+                    if (cambio.getTipo() == ClienteModificadoEvent.Tipo.ELIMINADO) {
+                        removerSinBloqueo(cambio.getClienteId());
+                    } else {
+                        indexarSinBloqueo(cambio.getClienteId(), cambio.getNombres(), cambio.getNumeroIdentificacion());
+                    }
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void indexarSinBloqueo(Long id, String nombres, String numeroIdentificacion) {
+            removerSinBloqueo(id);
+            String[] campos = {
+                    TextoBusqueda.normalizar(nombres),
+                    TextoBusqueda.identificacion(numeroIdentificacion)
+            };
+            documentos.put(id, campos);
+            for (String campo : campos) {
+                for (int i = 0; i + N <= campo.length(); i++) {
+                    posteos.computeIfAbsent(clave(campo, i), k -> new ListaIds()).agregar(id);
+                }
+            }
+        }
+
+        private void removerSinBloqueo(Long id) {
+            String[] campos = documentos.remove(id);
+            if (campos == null) {
+                return;
+            }
+            for (String campo : campos) {
+                for (int i = 0; i + N <= campo.length(); i++) {
+                    long clave = clave(campo, i);
+                    ListaIds lista = posteos.get(clave);
+                    if (lista != null && lista.remover(id) && lista.estaVacia()) {
+                        posteos.remove(clave);
+                    }
+                }
+            }
+        }
+
+        private long[] todos() {
+            return documentos.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        private long[] recorrer(String[] textos) {
+            long[] ids = documentos.entrySet().stream()
+                    .filter(e -> coincide(e.getValue(), textos))
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            return ordenarPorRelevancia(ids, textos);
+        }
+
+        /**
+         * Mismo orden que la búsqueda SQL: exacta, prefijo, subcadena, nombre e ID
+         */
+        private long[] ordenarPorRelevancia(long[] ids, String[] textos) {
+            Comparator<Long> orden = Comparator
+                    .comparingInt((Long id) -> relevancia(documentos.get(id), textos))
+                    .thenComparing(id -> documentos.get(id)[0])
+                    .thenComparing(Comparator.naturalOrder());
+            return Arrays.stream(ids).boxed().sorted(orden).mapToLong(Long::longValue).toArray();
+        }
+
+        private static int relevancia(String[] campos, String[] textos) {
+            int relevancia = 2;
+            for (int i = 0; i < campos.length; i++) {
+                if (campos[i].equals(textos[i])) {
+                    return 0;
+                }
+                if (campos[i].startsWith(textos[i])) {
+                    relevancia = 1;
+                }
+            }
+            return relevancia;
+        }
+
+        private static boolean coincide(String[] campos, String[] textos) {
+            if (campos == null) {
+                return false;
+            }
+            for (int i = 0; i < campos.length; i++) {
+                if (campos[i].contains(textos[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteResumen;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Estructura ordenada de prefijos, por empresa, para el autocompletado de clientes.
+ *
+ * Cada cliente aporta una clave por cada palabra de su nombre (de esa palabra
+ * hasta el final) y una por su número de identificación, así "per" sugiere
+ * "Juan Perez". Un prefijo se resuelve como un rango del mapa ordenado, sin
+ * consultar la base de datos: primero los nombres (normalizados) y luego las
+ * identificaciones (solo en minúsculas, como TextoBusqueda.identificacion), el
+ * mismo criterio y orden que ClienteRepository.sugerirPorNombre/PorIdentificacion. Se construye en la primera consulta de la
+ * empresa y se mantiene con los eventos {@link ClienteModificadoEvent}.
+ *
+ * Está deshabilitado por defecto (minegocio.busqueda.sugerencias.habilitado) porque
+ * ocupa memoria proporcional al número de clientes. Los índices se guardan en una
+ * caché Caffeine acotada por peso (una unidad por clave, medido al terminar de
+ * construir) que además descarta las empresas sin consultas durante el tiempo de
+ * inactividad. Las métricas se publican con la etiqueta cache=clientes.sugerencias.
+ */
+@Component
+public class IndiceSugerencias {
+
+    public static final String NOMBRE = "clientes.sugerencias";
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceSugerencias.class);
+
+    private static final char SEPARADOR = '\u0000';
+
+    /**
+     * Primer carácter de cada clave: los nombres se ordenan antes que las identificaciones
+     */
+    private static final char CLAVE_NOMBRE = '0';
+    private static final char CLAVE_IDENTIFICACION = '1';
+
+    private final ClienteRepository clienteRepository;
+    private final boolean habilitado;
+    private final Cache<Long, SugerenciasEmpresa> indices;
+
+    public IndiceSugerencias(ClienteRepository clienteRepository, MeterRegistry meterRegistry,
+                             @Value("${minegocio.busqueda.sugerencias.habilitado:false}") boolean habilitado,
+                             @Value("${minegocio.busqueda.sugerencias.peso-maximo:500000}") long pesoMaximo,
+                             @Value("${minegocio.busqueda.sugerencias.inactividad:PT30M}") Duration inactividad) {
+        this.clienteRepository = clienteRepository;
+        this.habilitado = habilitado;
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((Long empresaId, SugerenciasEmpresa indice) -> 1 + indice.claves.size())
+                .expireAfterAccess(inactividad)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, NOMBRE);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Obtiene las primeras sugerencias cuyo nombre o identificación empiezan por el prefijo
+     * @param empresaId ID de la empresa
+     * @param prefijo Texto escrito por el usuario
+     * @param limite Número máximo de sugerencias
+     * @return Sugerencias por nombre y luego por identificación, cada grupo en orden
+     *         alfabético y sin repetir cliente
+     */
+    public List<SugerenciaResponse> sugerir(Long empresaId, String prefijo, int limite) {
+        String nombre = TextoBusqueda.normalizar(prefijo);
+        if (nombre.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        return obtenerIndice(empresaId).sugerir(nombre, TextoBusqueda.identificacion(prefijo), limite);
+    }
+
+    /**
+     * Descarta las sugerencias de una empresa; se reconstruyen en la siguiente consulta
+     */
+    public void invalidar(Long empresaId) {
+        indices.invalidate(empresaId);
+    }
+
+    /**
+     * Descarta las sugerencias de todas las empresas
+     */
+    public void invalidarTodo() {
+        indices.invalidateAll();
+    }
+
+    /**
+     * Aplica los cambios de un cliente ya confirmados en base de datos
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        if (!habilitado) {
+            return;
+        }
+        SugerenciasEmpresa indice = indices.asMap().get(event.getEmpresaId());
+        if (indice == null) {
+            return;
+        }
+        indice.aplicar(List.of(event));
+    }
+
+    /**
+     * Aplica los cambios de un lote en una sola sección sincronizada y vuelve a pesar el índice
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        if (!habilitado) {
+            return;
+        }
+        SugerenciasEmpresa indice = indices.asMap().get(event.getEmpresaId());
+        if (indice != null && indice.aplicar(event.getCambios())) {
+            indices.asMap().replace(event.getEmpresaId(), indice, indice);
+        }
+    }
+
+    long tamano() {
+        indices.cleanUp();
+        return indices.estimatedSize();
+    }
+
+    private SugerenciasEmpresa obtenerIndice(Long empresaId) {
+        // Se registra vacío antes de leer la base de datos para no perder los eventos
+        // que lleguen mientras se construye; al terminar se vuelve a pesar
+        SugerenciasEmpresa indice = indices.get(empresaId, id -> new SugerenciasEmpresa());
+        if (!indice.listo) {
+            try {
+                if (indice.construir(empresaId, clienteRepository)) {
+                    indices.asMap().replace(empresaId, indice, indice);
+                }
+            } catch (RuntimeException e) {
+                indices.asMap().remove(empresaId, indice);
+                throw e;
+            }
+        }
+        return indice;
+    }
+
+    /**
+     * Sugerencias de una sola empresa. Las lecturas recorren el mapa concurrente
+     * sin bloqueo; construcción y modificaciones se serializan sobre la instancia.
+     */
+    static final class SugerenciasEmpresa {
+
+        private final ConcurrentSkipListMap<String, SugerenciaResponse> claves = new ConcurrentSkipListMap<>();
+        private final Map<Long, List<String>> clavesPorId = new HashMap<>();
+        private volatile boolean listo;
+
+        /**
+         * @return true si esta llamada construyó el índice
+         */
+        synchronized boolean construir(Long empresaId, ClienteRepository repository) {
+            if (listo) {
+                return false;
+            }
+            long inicio = System.nanoTime();
+            List<ClienteResumen> clientes = repository.findResumenByEmpresaId(empresaId);
+            for (ClienteResumen cliente : clientes) {
+                indexarSinBloqueo(cliente.getId(), cliente.getNombres(), cliente.getNumeroIdentificacion());
+            }
+            listo = true;
+            logger.info("Sugerencias construidas para empresa {}: {} clientes, {} claves en {} ms",
+                    empresaId, clavesPorId.size(), claves.size(), (System.nanoTime() - inicio) / 1_000_000);
+            return true;
+        }
+
+        List<SugerenciaResponse> sugerir(String nombre, String numero, int limite) {
+            List<SugerenciaResponse> resultado = new ArrayList<>(limite);
+            agregarRango(CLAVE_NOMBRE + nombre, resultado, limite);
+            agregarRango(CLAVE_IDENTIFICACION + numero, resultado, limite);
+            return resultado;
+        }
+
+        private void agregarRango(String prefijo, List<SugerenciaResponse> resultado, int limite) {
+            NavigableMap<String, SugerenciaResponse> rango =
+                    claves.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+            Set<Long> vistos = new HashSet<>();
+            for (SugerenciaResponse sugerencia : rango.values()) {
+                if (resultado.size() == limite) {
+                    return;
+                }
+                if (vistos.add(sugerencia.getId())) {
+                    resultado.add(sugerencia);
+                }
+            }
+        }
+
+        /**
+         * @return true si el índice ya estaba construido y se aplicaron los cambios
+         */
+        synchronized boolean aplicar(List<ClienteModificadoEvent> cambios) {
+            if (!listo) {
+                return false;
+            }
+            for (ClienteModificadoEvent cambio : cambios) {
+                if (cambio.getTipo() == ClienteModificadoEvent.Tipo.ELIMINADO) {
+                    removerSinBloqueo(cambio.getClienteId());
+                } else {
+                    indexarSinBloqueo(cambio.getClienteId(), cambio.getNombres(), cambio.getNumeroIdentificacion());
+                }
+            }
+            return true;
+        }
+
+        private void indexarSinBloqueo(Long id, String nombres, String numeroIdentificacion) {
+            removerSinBloqueo(id);
+            List<String> nuevas = new ArrayList<>();
+
+            SugerenciaResponse porNombre = new SugerenciaResponse(id, nombres, SugerenciaResponse.TIPO_NOMBRE);
+            String nombre = TextoBusqueda.normalizar(nombres);
+            for (int i = 0; i < nombre.length(); i++) {
+                if (i == 0 || (nombre.charAt(i - 1) == ' ' && nombre.charAt(i) != ' ')) {
+                    nuevas.add(agregar(CLAVE_NOMBRE + nombre.substring(i), id, porNombre));
+                }
+            }
+
+            String numero = TextoBusqueda.identificacion(numeroIdentificacion);
+            if (!numero.isEmpty()) {
+                SugerenciaResponse porNumero = new SugerenciaResponse(
+                        id, numeroIdentificacion, SugerenciaResponse.TIPO_IDENTIFICACION);
+                nuevas.add(agregar(CLAVE_IDENTIFICACION + numero, id, porNumero));
+            }
+            clavesPorId.put(id, nuevas);
+        }
+
+        private String agregar(String texto, Long id, SugerenciaResponse sugerencia) {
+            // El ID en la clave permite nombres repetidos entre clientes
+            String clave = texto + SEPARADOR + id;
+            claves.put(clave, sugerencia);
+            return clave;
+        }
+
+        private void removerSinBloqueo(Long id) {
+            List<String> anteriores = clavesPorId.remove(id);
+            if (anteriores != null) {
+                anteriores.forEach(claves::remove);
+            }
+        }
+    }
+}
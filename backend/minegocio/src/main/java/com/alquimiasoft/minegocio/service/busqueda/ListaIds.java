@@ -0,0 +1,103 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada y sin duplicados de IDs sobre un arreglo primitivo long[].
+ * Se usa como lista de posteo del índice de n-gramas para evitar el costo
+ * de memoria de boxear cada ID en un Long. No es thread-safe.
+ */
+final class ListaIds {
+
+    private static final long[] VACIO = new long[0];
+
+    private long[] ids;
+    private int tamano;
+
+    ListaIds() {
+        this.ids = new long[4];
+    }
+
+    /**
+     * Agrega un ID manteniendo el orden
+     * @return true si el ID no estaba en la lista
+     */
+    boolean agregar(long id) {
+        int pos = Arrays.binarySearch(ids, 0, tamano, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insercion = -pos - 1;
+        if (tamano == ids.length) {
+            ids = Arrays.copyOf(ids, tamano + (tamano >> 1) + 1);
+        }
+        System.arraycopy(ids, insercion, ids, insercion + 1, tamano - insercion);
+        ids[insercion] = id;
+        tamano++;
+        return true;
+    }
+
+    /**
+     * Elimina un ID de la lista
+     * @return true si el ID estaba en la lista
+     */
+    boolean remover(long id) {
+        int pos = Arrays.binarySearch(ids, 0, tamano, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, tamano - pos - 1);
+        tamano--;
+        return true;
+    }
+
+    boolean contiene(long id) {
+        return Arrays.binarySearch(ids, 0, tamano, id) >= 0;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    long[] aArreglo() {
+        return tamano == 0 ? VACIO : Arrays.copyOf(ids, tamano);
+    }
+
+    /**
+     * Intersecta varias listas recorriendo la más corta y buscando en las demás
+     * @param listas Listas a intersectar; ninguna debe ser null
+     * @return IDs presentes en todas las listas, en orden ascendente
+     */
+    static long[] intersectar(ListaIds... listas) {
+        if (listas.length == 0) {
+            return VACIO;
+        }
+        ListaIds menor = listas[0];
+        for (ListaIds lista : listas) {
+            if (lista.tamano < menor.tamano) {
+                menor = lista;
+            }
+        }
+
+        long[] resultado = new long[menor.tamano];
+        int encontrados = 0;
+        for (int i = 0; i < menor.tamano; i++) {
+            long id = menor.ids[i];
+            boolean enTodas = true;
+            for (ListaIds lista : listas) {
+                if (lista != menor && !lista.contiene(id)) {
+                    enTodas = false;
+                    break;
+                }
+            }
+            if (enTodas) {
+                resultado[encontrados++] = id;
+            }
+        }
+        return Arrays.copyOf(resultado, encontrados);
+    }
+}
@@ -0,0 +1,31 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.exception.BusinessException;
+
+/**
+ * Modo de búsqueda de clientes solicitado por el usuario
+ */
+public enum ModoBusqueda {
+    /** Subcadena sobre nombres e identificación (comportamiento por defecto) */
+    SIMPLE,
+    /** Texto completo sobre nombres y dirección matriz, ordenado por ts_rank */
+    FULLTEXT,
+    /** Nombres que suenan igual ("Jimena" encuentra "Ximena") por clave fonética */
+    FONETICO;
+
+    /**
+     * @param valor "simple", "fulltext" o "fonetico" (null usa SIMPLE)
+     */
+    public static ModoBusqueda desde(String valor) {
+        if (valor == null || valor.isBlank() || "simple".equalsIgnoreCase(valor)) {
+            return SIMPLE;
+        }
+        if ("fulltext".equalsIgnoreCase(valor)) {
+            return FULLTEXT;
+        }
+        if ("fonetico".equalsIgnoreCase(valor) || "fonético".equalsIgnoreCase(valor)) {
+            return FONETICO;
+        }
+        throw BusinessException.modoBusquedaInvalido(valor);
+    }
+}
@@ -0,0 +1,167 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.entity.TipoIdentificacion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Clasifica el criterio de búsqueda de clientes y elige la estrategia más barata.
+ *
+ * Una cédula (10 dígitos), un RUC (13 dígitos) o un pasaporte (alfanumérico con
+ * letras y dígitos) se resuelven primero con una búsqueda exacta sobre el índice
+ * único uq_cliente_empresa_tipo_numero; si no hay resultado se usa la estrategia
+ * de respaldo por subcadena. En modo FULLTEXT, si la base de datos lo soporta,
+ * el texto se resuelve con la columna tsvector de cliente y en modo FONETICO
+ * con las claves fonéticas de los nombres. Cada búsqueda se registra en la métrica
+ * minegocio.clientes.busqueda con la estrategia que produjo el resultado.
+ */
+@Component
+public class PlanificadorBusqueda {
+
+    public static final String METRICA = "minegocio.clientes.busqueda";
+
+    private static final Pattern CEDULA = Pattern.compile("\\d{10}");
+    private static final Pattern RUC = Pattern.compile("\\d{13}");
+    private static final Pattern PASAPORTE = Pattern.compile("(?=.*\\d)(?=.*[A-Za-z])[A-Za-z0-9]{6,20}");
+
+    public enum Estrategia {
+        /** Sin criterio: listado de la empresa */
+        LISTADO,
+        /** Búsqueda exacta por tipo y número de identificación */
+        IDENTIFICACION_EXACTA,
+        /** Índice de n-gramas en memoria */
+        INDICE_MEMORIA,
+        /** LIKE '%texto%' sobre los índices trigram */
+        SUBCADENA,
+        /** tsvector de nombres + dirección matriz, ordenado por ts_rank (solo PostgreSQL) */
+        TEXTO_COMPLETO,
+        /** Igualdad sobre las claves fonéticas de cada palabra de los nombres */
+        FONETICA
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public PlanificadorBusqueda(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Decide cómo resolver una búsqueda
+     * @param busqueda Criterio ingresado por el usuario (puede ser null)
+     * @param indiceMemoriaHabilitado Si el índice de n-gramas está disponible
+     * @return El plan a ejecutar
+     */
+    public PlanBusqueda planificar(String busqueda, boolean indiceMemoriaHabilitado) {
+        return planificar(busqueda, ModoBusqueda.SIMPLE, indiceMemoriaHabilitado, false);
+    }
+
+    /**
+     * Decide cómo resolver una búsqueda en el modo pedido
+     * @param busqueda Criterio ingresado por el usuario (puede ser null)
+     * @param modo Modo solicitado
+     * @param indiceMemoriaHabilitado Si el índice de n-gramas está disponible
+     * @param textoCompletoDisponible Si la base de datos soporta la búsqueda de texto completo;
+     *                                si no, FULLTEXT se resuelve como SIMPLE
+     * @return El plan a ejecutar
+     */
+    public PlanBusqueda planificar(String busqueda, ModoBusqueda modo,
+                                   boolean indiceMemoriaHabilitado, boolean textoCompletoDisponible) {
+        String texto = busqueda == null ? "" : busqueda.trim();
+        if (texto.isEmpty()) {
+            return new PlanBusqueda(Estrategia.LISTADO, texto, null, null);
+        }
+
+        Estrategia porTexto;
+        if (modo == ModoBusqueda.FULLTEXT && textoCompletoDisponible) {
+            porTexto = Estrategia.TEXTO_COMPLETO;
+        } else if (modo == ModoBusqueda.FONETICO) {
+            porTexto = Estrategia.FONETICA;
+        } else {
+            porTexto = indiceMemoriaHabilitado ? Estrategia.INDICE_MEMORIA : Estrategia.SUBCADENA;
+        }
+        TipoIdentificacion tipo = clasificarIdentificacion(texto);
+        if (tipo != null) {
+            return new PlanBusqueda(Estrategia.IDENTIFICACION_EXACTA, texto, tipo, porTexto);
+        }
+        return new PlanBusqueda(porTexto, texto, null, null);
+    }
+
+    /**
+     * Registra la ejecución de un plan
+     * @param plan El plan elegido
+     * @param usada La estrategia que finalmente produjo el resultado
+     * @param nanos Duración de la búsqueda
+     */
+    public void registrar(PlanBusqueda plan, Estrategia usada, long nanos) {
+        Timer.builder(METRICA)
+                .description("Búsquedas de clientes por estrategia")
+                .tag("estrategia", usada.name())
+                .tag("respaldo", String.valueOf(usada != plan.getEstrategia()))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static TipoIdentificacion clasificarIdentificacion(String texto) {
+        if (CEDULA.matcher(texto).matches()) {
+            return TipoIdentificacion.CEDULA;
+        }
+        if (RUC.matcher(texto).matches()) {
+            return TipoIdentificacion.RUC;
+        }
+        if (PASAPORTE.matcher(texto).matches()) {
+            return TipoIdentificacion.PASAPORTE;
+        }
+        return null;
+    }
+
+    /**
+     * Resultado de la planificación de una búsqueda
+     */
+    public static final class PlanBusqueda {
+
+        private final Estrategia estrategia;
+        private final String texto;
+        private final TipoIdentificacion tipoIdentificacion;
+        private final Estrategia respaldo;
+
+        PlanBusqueda(Estrategia estrategia, String texto,
+                     TipoIdentificacion tipoIdentificacion, Estrategia respaldo) {
+            this.estrategia = estrategia;
+            this.texto = texto;
+            this.tipoIdentificacion = tipoIdentificacion;
+            this.respaldo = respaldo;
+        }
+
+        public Estrategia getEstrategia() {
+            return estrategia;
+        }
+
+        public String getTexto() {
+            return texto;
+        }
+
+        public TipoIdentificacion getTipoIdentificacion() {
+            return tipoIdentificacion;
+        }
+
+        /**
+         * Estrategia a usar si la principal no encuentra resultados (null si no aplica)
+         */
+        public Estrategia getRespaldo() {
+            return respaldo;
+        }
+
+        @Override
+        public String toString() {
+            return "PlanBusqueda{" +
+                    "estrategia=" + estrategia +
+                    ", tipoIdentificacion=" + tipoIdentificacion +
+                    ", respaldo=" + respaldo +
+                    '}';
+        }
+    }
+}
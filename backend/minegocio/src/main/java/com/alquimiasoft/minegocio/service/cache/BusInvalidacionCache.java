@@ -0,0 +1,443 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceSugerencias;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bus de invalidación de cachés entre réplicas sobre LISTEN/NOTIFY de PostgreSQL.
+ *
+ * Cada cambio de cliente o dirección emite {@code NOTIFY minegocio_cache, '<nodo>:<empresaId>:<clientes>[:<direcciones>]'}
+ * dentro de la misma transacción, así PostgreSQL solo lo entrega si hay commit.
+ * Cada nodo mantiene una conexión dedicada (fuera del pool) que escucha el canal,
+ * ignora sus propias notificaciones y descarta solo las entradas afectadas: búsquedas
+ * e índices de la empresa, el JSON y la entidad de cada cliente con su colección de
+ * direcciones, las direcciones indicadas y las marcas de tiempo de consultas de las
+ * tablas cliente y direccion. Una lista demasiado larga para un NOTIFY viaja como "*".
+ *
+ * Si la conexión cae, las cachés siguen expirando por TTL y se reintenta la conexión;
+ * al reconectar se vacía todo porque pudieron perderse notificaciones. Con H2 no hace nada.
+ */
+@Component
+public class BusInvalidacionCache implements SmartLifecycle {
+
+    public static final String CANAL = "minegocio_cache";
+
+    private static final Logger logger = LoggerFactory.getLogger(BusInvalidacionCache.class);
+
+    /**
+     * pg_notify acepta payloads de menos de 8000 bytes
+     */
+    static final int LONGITUD_MAXIMA_PAYLOAD = 7999;
+
+    /**
+     * En lugar de una lista de ids: todos los de la región
+     */
+    static final String TODOS = "*";
+
+    private static final String[] TABLA_CLIENTE = {"cliente"};
+    private static final String[] TABLAS_CLIENTE_Y_DIRECCION = {"cliente", "direccion"};
+
+    @Autowired
+    private CacheBusquedaClientes cacheBusqueda;
+
+    @Autowired
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Autowired
+    private IndiceSugerencias indiceSugerencias;
+
+    @Autowired
+    private CoalescedorLecturas coalescedor;
+
+    @Autowired
+    private CacheDetalleClientes cacheDetalle;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BaseDatosInfo baseDatos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${minegocio.cache.invalidacion.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Espera entre intentos de reconexión del listener
+     */
+    @Value("${minegocio.cache.invalidacion.reintento:PT5S}")
+    private Duration reintento;
+
+    /**
+     * Tiempo máximo esperando notificaciones antes de comprobar que la conexión sigue viva
+     */
+    @Value("${minegocio.cache.invalidacion.espera:PT10S}")
+    private Duration espera;
+
+    /**
+     * Identifica a este nodo en el payload para ignorar sus propias notificaciones
+     */
+    private final String nodo = UUID.randomUUID().toString();
+
+    private volatile boolean activo;
+    private volatile boolean conectado;
+    private volatile Connection conexion;
+    private Thread hilo;
+
+    private Counter enviadas;
+    private Counter recibidas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        enviadas = Counter.builder("minegocio.cache.invalidacion")
+                .description("Notificaciones de invalidación emitidas o recibidas")
+                .tag("sentido", "enviada")
+                .register(meterRegistry);
+        recibidas = Counter.builder("minegocio.cache.invalidacion")
+                .description("Notificaciones de invalidación emitidas o recibidas")
+                .tag("sentido", "recibida")
+                .register(meterRegistry);
+        Gauge.builder("minegocio.cache.invalidacion.conectado", this, bus -> bus.conectado ? 1 : 0)
+                .description("1 si el listener LISTEN/NOTIFY está conectado; 0 si solo rige el TTL")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Emite la notificación en la transacción del cambio: se entrega tras el commit
+     * y se descarta con el rollback
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        if (!habilitado || !baseDatos.isPostgreSql()) {
+            return;
+        }
+        notificar(payload(event.getEmpresaId(), List.of(event)));
+    }
+
+    /**
+     * Un solo NOTIFY para todos los clientes del lote
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        if (!habilitado || !baseDatos.isPostgreSql() || event.getCambios().isEmpty()) {
+            return;
+        }
+        notificar(payload(event.getEmpresaId(), event.getCambios()));
+    }
+
+    private void notificar(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultado -> { }, CANAL, payload);
+        enviadas.increment();
+    }
+
+    /**
+     * Arma el payload de los cambios de una empresa. Los clientes creados no se listan
+     * (ningún nodo los tiene en caché) y las direcciones solo van si alguna cambió.
+     */
+    String payload(Long empresaId, Collection<ClienteModificadoEvent> cambios) {
+        List<Long> clientes = new ArrayList<>(cambios.size());
+        Set<Long> direcciones = null;
+        for (ClienteModificadoEvent cambio : cambios) {
+            if (cambio.getTipo() != ClienteModificadoEvent.Tipo.CREADO) {
+                clientes.add(cambio.getClienteId());
+            }
+            if (cambio.isDireccionesModificadas()) {
+                if (direcciones == null) {
+                    direcciones = new LinkedHashSet<>();
+                }
+                direcciones.addAll(cambio.getDireccionIds());
+            }
+        }
+        String encabezado = nodo + ":" + empresaId + ":";
+        String payload = encabezado + lista(clientes) + (direcciones != null ? ":" + lista(direcciones) : "");
+        if (payload.length() > LONGITUD_MAXIMA_PAYLOAD) {
+            payload = encabezado + TODOS + (direcciones != null ? ":" + TODOS : "");
+        }
+        return payload;
+    }
+
+    /**
+     * Aplica una notificación recibida; las emitidas por este mismo nodo se ignoran
+     * @param payload {@code "<nodo>:<empresaId>:<clientes>[:<direcciones>]"}
+     */
+    void procesar(String payload) {
+        String[] campos = payload == null ? new String[0] : payload.split(":", -1);
+        if (campos.length != 3 && campos.length != 4) {
+            logger.warn("Notificación de caché inválida: {}", payload);
+            return;
+        }
+        if (nodo.equals(campos[0])) {
+            return;
+        }
+        Long empresaId;
+        List<Long> clienteIds;
+        List<Long> direccionIds = null;
+        try {
+            empresaId = Long.valueOf(campos[1]);
+            clienteIds = ids(campos[2]);
+            if (campos.length == 4) {
+                direccionIds = ids(campos[3]);
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Notificación de caché inválida: {}", payload);
+            return;
+        }
+        recibidas.increment();
+        invalidar(empresaId, clienteIds, campos.length == 4, direccionIds);
+    }
+
+    /**
+     * Descarta las entradas locales afectadas por un cambio hecho en otro nodo
+     * @param clienteIds Clientes modificados o eliminados; null si son todos
+     * @param direccionesModificadas Si el cambio tocó direcciones
+     * @param direccionIds Direcciones obsoletas; null si son todas
+     */
+    public void invalidar(Long empresaId, Collection<Long> clienteIds, boolean direccionesModificadas,
+                          Collection<Long> direccionIds) {
+        cacheBusqueda.invalidar(empresaId);
+        indiceNgramas.invalidar(empresaId);
+        indiceSugerencias.invalidar(empresaId);
+        coalescedor.soltarEnCurso();
+        CacheImplementor segundoNivel = cacheSegundoNivel();
+        if (clienteIds == null) {
+            cacheDetalle.invalidarTodo();
+            segundoNivel.evictEntityData(Cliente.class);
+            segundoNivel.evictCollectionData(Cliente.class.getName() + ".direcciones");
+        } else {
+            for (Long clienteId : clienteIds) {
+                cacheDetalle.invalidar(clienteId);
+                segundoNivel.evictEntityData(Cliente.class, clienteId);
+                segundoNivel.evictCollectionData(Cliente.class.getName() + ".direcciones", clienteId);
+            }
+        }
+        if (direccionesModificadas) {
+            if (direccionIds == null) {
+                segundoNivel.evictEntityData(Direccion.class);
+            } else {
+                direccionIds.forEach(direccionId -> segundoNivel.evictEntityData(Direccion.class, direccionId));
+            }
+        }
+        // Las marcas de tiempo de la caché de consultas son locales y no vieron la escritura
+        invalidarConsultas(segundoNivel, direccionesModificadas ? TABLAS_CLIENTE_Y_DIRECCION : TABLA_CLIENTE);
+        logger.debug("Cachés locales invalidadas por cambio remoto en clientes {} de empresa {}",
+                clienteIds != null ? clienteIds : TODOS, empresaId);
+    }
+
+    /**
+     * Vacía todas las cachés locales (tras un corte del listener)
+     */
+    public void invalidarTodo() {
+        cacheBusqueda.invalidarTodo();
+        indiceNgramas.invalidarTodo();
+        indiceSugerencias.invalidarTodo();
+        coalescedor.soltarEnCurso();
+        cacheDetalle.invalidarTodo();
+        cacheSegundoNivel().evictAllRegions();
+        logger.info("Cachés locales vaciadas por posible pérdida de notificaciones");
+    }
+
+    public boolean isConectado() {
+        return conectado;
+    }
+
+    @Override
+    public void start() {
+        if (!habilitado || !baseDatos.isPostgreSql()) {
+            logger.info("Invalidación entre nodos deshabilitada; las cachés solo expiran por TTL");
+            return;
+        }
+        activo = true;
+        hilo = new Thread(this::escuchar, "minegocio-cache-listen");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @Override
+    public void stop() {
+        activo = false;
+        cerrarConexion();
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+
+    private void escuchar() {
+        boolean primeraConexion = true;
+        while (activo) {
+            try {
+                conexion = abrirConexion();
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("LISTEN " + CANAL);
+                }
+                conectado = true;
+                logger.info("Escuchando invalidaciones de caché en el canal {}", CANAL);
+                if (!primeraConexion) {
+                    invalidarTodo();
+                }
+                primeraConexion = false;
+                recibir(conexion.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (activo) {
+                    logger.warn("Listener de invalidación desconectado ({}); solo rige el TTL hasta reconectar",
+                            e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                // Al reconectar se vuelve a vaciar todo
+                logger.error("Error en el listener de invalidación; se reconecta", e);
+            } finally {
+                conectado = false;
+                cerrarConexion();
+            }
+            esperarReintento();
+        }
+    }
+
+    private void recibir(PGConnection pg) throws SQLException {
+        int esperaMs = (int) espera.toMillis();
+        while (activo) {
+            PGNotification[] notificaciones = pg.getNotifications(esperaMs);
+            if (notificaciones == null || notificaciones.length == 0) {
+                // Sin tráfico: una consulta trivial detecta una conexión caída
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notificacion : notificaciones) {
+                try {
+                    procesar(notificacion.getParameter());
+                } catch (RuntimeException e) {
+                    // Un fallo no detiene el listener: lo que no se descartó expira por TTL
+                    logger.error("No se pudo aplicar la notificación de caché {}", notificacion.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    private Connection abrirConexion() throws SQLException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("user", dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null) {
+            propiedades.setProperty("password", password);
+        }
+        propiedades.setProperty("ApplicationName", "minegocio-cache-listen");
+        propiedades.setProperty("tcpKeepAlive", "true");
+        Connection nueva = DriverManager.getConnection(dataSourceProperties.determineUrl(), propiedades);
+        nueva.setAutoCommit(true);
+        return nueva;
+    }
+
+    private void cerrarConexion() {
+        Connection actual = conexion;
+        conexion = null;
+        if (actual != null) {
+            try {
+                actual.close();
+            } catch (SQLException e) {
+                logger.debug("Error al cerrar la conexión del listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void esperarReintento() {
+        if (!activo) {
+            return;
+        }
+        try {
+            Thread.sleep(reintento.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+
+    /**
+     * Marca las tablas como modificadas ahora: las consultas cacheadas antes quedan obsoletas
+     */
+    private void invalidarConsultas(CacheImplementor segundoNivel, String[] tablas) {
+        SessionFactoryImplementor fabrica = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (SessionImplementor sesion = (SessionImplementor) fabrica.openSession()) {
+            segundoNivel.getTimestampsCache().invalidate(tablas, sesion);
+        }
+    }
+
+    private static String lista(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * @return Los ids de la lista; null si es "*"
+     */
+    private static List<Long> ids(String lista) {
+        if (TODOS.equals(lista)) {
+            return null;
+        }
+        if (lista.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String id : lista.split(",")) {
+            ids.add(Long.valueOf(id));
+        }
+        return ids;
+    }
+
+    private CacheImplementor cacheSegundoNivel() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+    }
+}
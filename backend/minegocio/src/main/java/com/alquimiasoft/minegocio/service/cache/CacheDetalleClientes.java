@@ -0,0 +1,97 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Caché opcional del JSON ya serializado de ClienteResponse para GET /api/clientes/{id}.
+ *
+ * Guarda los bytes del campo data por cliente; el controlador solo agrega el sobre
+ * de ApiResponse (message y timestamp). La versión vigente es la última confirmada:
+ * cada cambio de cliente o dirección descarta la entrada tras el commit (o al llegar
+ * la notificación de otro nodo). La carga se hace dentro de la caché, así una
+ * invalidación que llega a mitad de una lectura espera a que termine y la descarta.
+ * Acotada por bytes; las métricas se publican con la etiqueta cache=clientes.detalle.
+ */
+@Component
+public class CacheDetalleClientes {
+
+    public static final String NOMBRE = "clientes.detalle";
+
+    private final boolean habilitado;
+    private final Cache<Long, byte[]> cache;
+
+    public CacheDetalleClientes(MeterRegistry meterRegistry,
+                                @Value("${minegocio.clientes.detalle-serializado.habilitado:false}") boolean habilitado,
+                                @Value("${minegocio.clientes.detalle-serializado.bytes-maximos:33554432}") long bytesMaximos,
+                                @Value("${minegocio.clientes.detalle-serializado.ttl:PT10M}") Duration ttl) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(bytesMaximos)
+                .weigher((Long id, byte[] json) -> json.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE);
+    }
+
+    /**
+     * Devuelve el JSON en caché del cliente o lo genera
+     * @param serializar Lee y serializa el cliente si no hay entrada vigente
+     */
+    public byte[] obtener(Long clienteId, Supplier<byte[]> serializar) {
+        if (!habilitado) {
+            return serializar.get();
+        }
+        return cache.get(clienteId, id -> serializar.get());
+    }
+
+    /**
+     * Descarta el JSON de un cliente
+     */
+    public void invalidar(Long clienteId) {
+        cache.invalidate(clienteId);
+    }
+
+    /**
+     * Descarta el JSON de todos los clientes
+     */
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Descarta el cliente modificado una vez confirmado el cambio
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        invalidar(event.getClienteId());
+    }
+
+    /**
+     * Descarta los clientes de un lote una vez confirmado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        event.getCambios().forEach(cambio -> invalidar(cambio.getClienteId()));
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    long tamano() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,127 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Une lecturas idénticas concurrentes (single-flight): mientras una lectura con la
+ * misma operación y argumentos está en curso, las demás esperan su resultado en vez
+ * de repetir la consulta. Aplana los picos cuando muchos cajeros abren el mismo
+ * cliente, sobre todo justo después de una invalidación de caché.
+ *
+ * Se usa desde el controlador, fuera de la transacción, para que quien espera no
+ * retenga una conexión del pool. Al confirmarse un cambio de cliente se sueltan las
+ * lecturas en curso: quien llega después del commit lanza una lectura nueva.
+ * La métrica minegocio.lecturas.coalescidas{operacion, resultado=ejecutada|compartida}
+ * permite calcular la proporción de lecturas ahorradas.
+ */
+@Component
+public class CoalescedorLecturas {
+
+    public static final String METRICA = "minegocio.lecturas.coalescidas";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final Map<List<Object>, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+
+    public CoalescedorLecturas(MeterRegistry meterRegistry,
+                               @Value("${minegocio.lecturas.coalescer.habilitado:true}") boolean habilitado) {
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Ejecuta la lectura o se une a una idéntica que ya está en curso
+     * @param operacion Nombre de la lectura (etiqueta de la métrica)
+     * @param lectura Consulta a ejecutar si no hay una en curso
+     * @param argumentos Argumentos que identifican la lectura junto con la operación
+     * @return El resultado, compartido entre todos los que esperaban
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, Supplier<T> lectura, Object... argumentos) {
+        if (!habilitado) {
+            return lectura.get();
+        }
+        List<Object> clave = new ArrayList<>(argumentos.length + 1);
+        clave.add(operacion);
+        Collections.addAll(clave, argumentos);
+
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            registrar(operacion, "compartida");
+            return (T) esperar(existente);
+        }
+        registrar(operacion, "ejecutada");
+        try {
+            T resultado = lectura.get();
+            propia.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Suelta las lecturas en curso: siguen sirviendo a quienes ya esperan, pero
+     * las nuevas peticiones no se unen a una lectura anterior al cambio
+     */
+    public void soltarEnCurso() {
+        enCurso.clear();
+    }
+
+    /**
+     * Tras el commit de un cambio de cliente o dirección
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        soltarEnCurso();
+    }
+
+    /**
+     * Tras el commit de un lote de cambios de clientes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent event) {
+        soltarEnCurso();
+    }
+
+    int lecturasEnCurso() {
+        return enCurso.size();
+    }
+
+    private void registrar(String operacion, String resultado) {
+        meterRegistry.counter(METRICA, "operacion", operacion, "resultado", resultado).increment();
+    }
+
+    private static Object esperar(CompletableFuture<Object> lectura) {
+        try {
+            return lectura.join();
+        } catch (CompletionException e) {
+            // Quien espera recibe la misma excepción que la lectura original
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
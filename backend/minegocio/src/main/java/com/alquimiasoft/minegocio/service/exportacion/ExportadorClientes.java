@@ -0,0 +1,255 @@
+package com.alquimiasoft.minegocio.service.exportacion;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Exportación de todos los clientes de una empresa con sus direcciones.
+ *
+ * Lee con un cursor JDBC de solo avance (filas-por-lectura filas por viaje; en
+ * PostgreSQL requiere la transacción que abre exportar) y escribe cada cliente en
+ * cuanto llegan sus filas, sin armar la lista completa: la memoria usada no depende
+ * del tamaño de la empresa. La consulta sigue el orden de idx_cliente_empresa_nombres_id,
+ * así las filas de un mismo cliente llegan juntas.
+ */
+@Service
+public class ExportadorClientes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportadorClientes.class);
+
+    private static final String CLIENTES_CON_DIRECCIONES =
+            "SELECT c.id, c.empresa_id, c.tipo_identificacion, c.numero_identificacion, c.nombres, c.correo, "
+                    + "c.celular, c.creado_en, d.id, d.provincia, d.ciudad, d.direccion_texto, d.es_matriz, "
+                    + "d.creado_en FROM cliente c LEFT JOIN direccion d ON d.cliente_id = c.id "
+                    + "WHERE c.empresa_id = ? ORDER BY c.nombres, c.id, d.es_matriz DESC, d.creado_en, d.id";
+
+    private static final CsvMapper CSV = new CsvMapper();
+
+    /**
+     * Columnas del CSV; las del cliente y la dirección usan los nombres que acepta la importación
+     */
+    private static final CsvSchema COLUMNAS_CSV = CsvSchema.builder()
+            .addColumn("clienteId").addColumn("tipoIdentificacion").addColumn("numeroIdentificacion")
+            .addColumn("nombres").addColumn("correo").addColumn("celular").addColumn("creadoEn")
+            .addColumn("direccionId").addColumn("esMatriz").addColumn("provincia").addColumn("ciudad")
+            .addColumn("direccion")
+            .setUseHeader(true)
+            .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Filas que trae el cursor por viaje a la base de datos
+     */
+    @Value("${minegocio.clientes.exportacion.filas-por-lectura:1000}")
+    private int filasPorLectura;
+
+    /**
+     * Escribe los clientes de la empresa en la salida a medida que se leen
+     * @return Número de clientes exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Long empresaId, FormatoExportacion formato, OutputStream salida) throws IOException {
+        logger.info("Exportando clientes de empresa {} en formato {}", empresaId, formato);
+        long inicio = System.nanoTime();
+
+        try (EscritorClientes escritor = formato == FormatoExportacion.NDJSON
+                ? new EscritorNdjson(objectMapper, salida)
+                : new EscritorCsv(salida)) {
+            AgrupadorFilas agrupador = new AgrupadorFilas(escritor);
+            jdbcTemplate.query(conexion -> {
+                PreparedStatement consulta = conexion.prepareStatement(CLIENTES_CON_DIRECCIONES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                consulta.setFetchSize(filasPorLectura);
+                consulta.setLong(1, empresaId);
+                return consulta;
+            }, agrupador::procesar);
+            agrupador.terminar();
+
+            logger.info("Se exportaron {} clientes de empresa {} en {} ms", agrupador.clientes, empresaId,
+                    (System.nanoTime() - inicio) / 1_000_000);
+            return agrupador.clientes;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Arma cada cliente con las filas consecutivas de sus direcciones y lo entrega
+     * al escritor al llegar la primera fila del siguiente
+     */
+    private static final class AgrupadorFilas {
+
+        private final EscritorClientes escritor;
+        private ClienteResponse actual;
+        private long clientes;
+
+        AgrupadorFilas(EscritorClientes escritor) {
+            this.escritor = escritor;
+        }
+
+        void procesar(ResultSet fila) throws SQLException {
+            long clienteId = fila.getLong(1);
+            if (actual == null || actual.getId() != clienteId) {
+                terminar();
+                actual = new ClienteResponse(clienteId, fila.getLong(2), fila.getString(3), fila.getString(4),
+                        fila.getString(5), fila.getString(6), fila.getString(7), fecha(fila.getTimestamp(8)));
+                actual.setDireccionesAdicionales(new ArrayList<>());
+            }
+            long direccionId = fila.getLong(9);
+            if (fila.wasNull()) {
+                return;
+            }
+            DireccionResponse direccion = new DireccionResponse(direccionId, fila.getString(10), fila.getString(11),
+                    fila.getString(12), fila.getBoolean(13), fecha(fila.getTimestamp(14)));
+            if (direccion.isEsMatriz()) {
+                actual.setDireccionMatriz(direccion);
+            } else {
+                actual.getDireccionesAdicionales().add(direccion);
+            }
+        }
+
+        void terminar() {
+            if (actual == null) {
+                return;
+            }
+            try {
+                escritor.escribir(actual);
+            } catch (IOException e) {
+                // El cliente cortó la descarga: se detiene la lectura del cursor
+                throw new UncheckedIOException(e);
+            }
+            clientes++;
+            actual = null;
+        }
+
+        private static LocalDateTime fecha(Timestamp marca) {
+            return marca != null ? marca.toLocalDateTime() : null;
+        }
+    }
+
+    /**
+     * Escribe cada cliente en la salida. close vacía el búfer sin cerrar la salida: si la
+     * lectura falla a mitad, la respuesta no se da por terminada y la conexión se corta.
+     */
+    private interface EscritorClientes extends AutoCloseable {
+
+        void escribir(ClienteResponse cliente) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Un objeto JSON por línea, cada una terminada en salto de línea. Sin
+     * FLUSH_AFTER_WRITE_VALUE: la salida se envía cuando se llena el búfer, no en cada cliente.
+     */
+    private static final class EscritorNdjson implements EscritorClientes {
+
+        private final ObjectWriter writer;
+        private final JsonGenerator generador;
+
+        EscritorNdjson(ObjectMapper objectMapper, OutputStream salida) throws IOException {
+            writer = objectMapper.writerFor(ClienteResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("");
+            generador = objectMapper.getFactory().createGenerator(salida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void escribir(ClienteResponse cliente) throws IOException {
+            writer.writeValue(generador, cliente);
+            generador.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generador.close();
+        }
+    }
+
+    /**
+     * Una fila por dirección (matriz primero); un cliente sin direcciones ocupa una
+     * fila con las columnas de dirección vacías
+     */
+    private static final class EscritorCsv implements EscritorClientes {
+
+        private final SequenceWriter filas;
+
+        EscritorCsv(OutputStream salida) throws IOException {
+            filas = CSV.writer(COLUMNAS_CSV)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValues(salida);
+        }
+
+        @Override
+        public void escribir(ClienteResponse cliente) throws IOException {
+            if (cliente.getDireccionMatriz() == null && cliente.getDireccionesAdicionales().isEmpty()) {
+                filas.write(fila(cliente, null));
+                return;
+            }
+            if (cliente.getDireccionMatriz() != null) {
+                filas.write(fila(cliente, cliente.getDireccionMatriz()));
+            }
+            for (DireccionResponse adicional : cliente.getDireccionesAdicionales()) {
+                filas.write(fila(cliente, adicional));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            filas.close();
+        }
+
+        private static String[] fila(ClienteResponse cliente, DireccionResponse direccion) {
+            boolean conDireccion = direccion != null;
+            return new String[] {
+                    texto(cliente.getId()), texto(cliente.getTipoIdentificacion()),
+                    texto(cliente.getNumeroIdentificacion()), texto(cliente.getNombres()),
+                    texto(cliente.getCorreo()), texto(cliente.getCelular()), texto(cliente.getCreadoEn()),
+                    conDireccion ? texto(direccion.getId()) : "",
+                    conDireccion ? texto(direccion.isEsMatriz()) : "",
+                    conDireccion ? texto(direccion.getProvincia()) : "",
+                    conDireccion ? texto(direccion.getCiudad()) : "",
+                    conDireccion ? texto(direccion.getDireccion()) : ""
+            };
+        }
+
+        /**
+         * Un null dentro del arreglo no ocupa columna en el CsvGenerator; se escribe vacío
+         */
+        private static String texto(Object valor) {
+            return valor != null ? valor.toString() : "";
+        }
+    }
+}
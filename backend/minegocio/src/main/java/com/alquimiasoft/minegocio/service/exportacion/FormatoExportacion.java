@@ -0,0 +1,42 @@
+package com.alquimiasoft.minegocio.service.exportacion;
+
+import com.alquimiasoft.minegocio.exception.BusinessException;
+
+/**
+ * Formato de GET /api/clientes/exportar
+ */
+public enum FormatoExportacion {
+    /** Una fila por dirección con los datos del cliente repetidos; cabecera compatible con la importación */
+    CSV("text/csv", "csv"),
+    /** Un ClienteResponse por línea, con su matriz y direcciones adicionales */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoExportacion(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    /**
+     * @param valor "csv" o "ndjson" (null usa CSV)
+     */
+    public static FormatoExportacion desde(String valor) {
+        if (valor == null || valor.isBlank() || "csv".equalsIgnoreCase(valor)) {
+            return CSV;
+        }
+        if ("ndjson".equalsIgnoreCase(valor)) {
+            return NDJSON;
+        }
+        throw BusinessException.formatoExportacionInvalido(valor);
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,303 @@
+package com.alquimiasoft.minegocio.service.importacion;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.dto.cliente.ImportacionClientesResponse;
+import com.alquimiasoft.minegocio.dto.cliente.ImportacionClientesResponse.ErrorFila;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.entity.TipoIdentificacion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.exception.BusinessException;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.GeneradorIds;
+import com.alquimiasoft.minegocio.service.importacion.LectorClientes.Fila;
+import com.alquimiasoft.minegocio.util.ClaveFonetica;
+import com.alquimiasoft.minegocio.util.TextoBusqueda;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de clientes con su dirección matriz.
+ *
+ * Las filas se guardan por lotes, cada uno en su propia transacción, con inserciones
+ * JDBC en batch (cliente, dirección matriz y claves fonéticas) en lugar de una
+ * entidad por fila; los ids salen de las mismas secuencias que usa Hibernate. Los
+ * duplicados contra uq_cliente_empresa_tipo_numero se detectan con una sola
+ * consulta por lote (ClienteRepository.buscarIdentificacionesExistentes). Como las
+ * inserciones no pasan por Hibernate, el lote calcula nombres_normalizados y las
+ * claves fonéticas igual que la entidad Cliente, publica un ClientesModificadosEvent
+ * por lote (índices, cachés y un solo NOTIFY) y vacía la caché de consultas tras el
+ * commit.
+ */
+@Service
+public class ImportadorClientes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportadorClientes.class);
+
+    private static final String INSERTAR_CLIENTE =
+            "INSERT INTO cliente (id, empresa_id, tipo_identificacion, numero_identificacion, nombres, "
+                    + "nombres_normalizados, correo, celular, creado_en) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERTAR_MATRIZ =
+            "INSERT INTO direccion (id, cliente_id, provincia, ciudad, direccion_texto, es_matriz, creado_en) "
+                    + "VALUES (?, ?, ?, ?, ?, TRUE, ?)";
+    private static final String INSERTAR_CLAVE =
+            "INSERT INTO cliente_clave_fonetica (cliente_id, clave) VALUES (?, ?)";
+    private static final int[] TIPOS_CLIENTE = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP};
+    private static final int[] TIPOS_MATRIZ = {Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP};
+    private static final int[] TIPOS_CLAVE = {Types.BIGINT, Types.VARCHAR};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GeneradorIds generadorIds;
+
+    /**
+     * Filas por lote y transacción
+     */
+    @Value("${minegocio.clientes.importacion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    /**
+     * Errores por fila que se devuelven en la respuesta
+     */
+    @Value("${minegocio.clientes.importacion.errores-maximos:1000}")
+    private int erroresMaximos;
+
+    /**
+     * Importa los clientes que entrega el lector en la empresa indicada.
+     * Las filas inválidas o duplicadas se informan y no detienen la importación;
+     * los lotes ya guardados se conservan aunque un lote posterior falle.
+     */
+    public ImportacionClientesResponse importar(Long empresaId, LectorClientes lector) {
+        logger.info("Importando clientes para empresa {} en lotes de {}", empresaId, tamanoLote);
+        long inicio = System.nanoTime();
+        ImportacionClientesResponse resultado = new ImportacionClientesResponse();
+
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+        Fila fila;
+        while ((fila = lector.siguiente()) != null) {
+            if (lector.isInterrumpida()) {
+                agregarError(resultado, new ErrorFila(fila.getNumero(), null, fila.getError()));
+                break;
+            }
+            resultado.setFilas(resultado.getFilas() + 1);
+            String error = fila.getError() != null ? fila.getError() : validar(empresaId, fila.getCliente());
+            if (error != null) {
+                rechazar(resultado, fila, error);
+                continue;
+            }
+            lote.add(fila);
+            if (lote.size() == tamanoLote) {
+                guardarLote(empresaId, lote, resultado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            guardarLote(empresaId, lote, resultado);
+        }
+
+        long nanos = System.nanoTime() - inicio;
+        resultado.getErrores().sort(Comparator.comparingLong(ErrorFila::getFila));
+        resultado.setInterrumpida(lector.isInterrumpida());
+        resultado.setDuracionMs(nanos / 1_000_000);
+        resultado.setFilasPorSegundo(nanos == 0 ? 0 : resultado.getFilas() * 1_000_000_000.0 / nanos);
+        logger.info("Importación para empresa {} finalizada: {} filas, {} importados, {} rechazados en {} ms",
+                empresaId, resultado.getFilas(), resultado.getImportados(), resultado.getRechazados(),
+                resultado.getDuracionMs());
+        return resultado;
+    }
+
+    /**
+     * Valida una fila con las mismas reglas que POST /api/clientes
+     * @return El mensaje de error o null si es válida
+     */
+    private String validar(Long empresaId, ClienteCreateRequest cliente) {
+        if (cliente == null) {
+            return "Fila vacía";
+        }
+        if (cliente.getEmpresaId() == null) {
+            cliente.setEmpresaId(empresaId);
+        } else if (!cliente.getEmpresaId().equals(empresaId)) {
+            return BusinessException.empresaInvalida(cliente.getEmpresaId()).getMessage();
+        }
+        List<String> violaciones = new ArrayList<>();
+        validator.validate(cliente).stream().map(ConstraintViolation::getMessage).forEach(violaciones::add);
+        if (cliente.getDireccionMatriz() != null) {
+            validator.validate(cliente.getDireccionMatriz()).stream()
+                    .map(ConstraintViolation::getMessage).forEach(violaciones::add);
+        }
+        if (!violaciones.isEmpty()) {
+            violaciones.sort(null);
+            return String.join("; ", violaciones);
+        }
+        if (!TipoIdentificacion.isValid(cliente.getTipoIdentificacion())) {
+            return BusinessException.tipoIdentificacionInvalido(cliente.getTipoIdentificacion()).getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Guarda un lote en su propia transacción. Si otro proceso insertó la misma
+     * identificación entre la consulta de duplicados y el INSERT, se repite una vez.
+     */
+    private void guardarLote(Long empresaId, List<Fila> lote, ImportacionClientesResponse resultado) {
+        ResultadoLote guardado = null;
+        for (int intento = 1; guardado == null; intento++) {
+            try {
+                guardado = transactionTemplate.execute(estado -> insertarLote(empresaId, lote));
+            } catch (DuplicateKeyException e) {
+                if (intento == 2) {
+                    guardado = rechazarLote(lote, e);
+                } else {
+                    logger.warn("Identificación duplicada por una escritura concurrente; se repite el lote");
+                }
+            } catch (DataIntegrityViolationException e) {
+                guardado = rechazarLote(lote, e);
+            }
+        }
+        resultado.setImportados(resultado.getImportados() + guardado.importados);
+        for (Map.Entry<Fila, String> rechazo : guardado.rechazos) {
+            rechazar(resultado, rechazo.getKey(), rechazo.getValue());
+        }
+        if (guardado.importados > 0) {
+            // Los INSERT por JDBC no actualizan las marcas de tiempo de la caché de consultas
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        }
+        logger.debug("Lote guardado: {} importados, {} rechazados", guardado.importados, guardado.rechazos.size());
+    }
+
+    private ResultadoLote insertarLote(Long empresaId, List<Fila> lote) {
+        ResultadoLote resultado = new ResultadoLote();
+        List<IdentificacionCliente> identificaciones = new ArrayList<>(lote.size());
+        for (Fila fila : lote) {
+            identificaciones.add(identificacion(fila.getCliente()));
+        }
+        Set<IdentificacionCliente> existentes =
+                clienteRepository.buscarIdentificacionesExistentes(empresaId, identificaciones);
+
+        List<ClienteCreateRequest> nuevos = new ArrayList<>(lote.size());
+        for (Fila fila : lote) {
+            ClienteCreateRequest cliente = fila.getCliente();
+            // add() también descarta las identificaciones repetidas dentro del mismo archivo
+            if (!existentes.add(identificacion(cliente))) {
+                resultado.rechazos.add(Map.entry(fila,
+                        BusinessException.clienteYaExiste(cliente.getNumeroIdentificacion()).getMessage()));
+            } else {
+                nuevos.add(cliente);
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return resultado;
+        }
+
+        Timestamp creadoEn = Timestamp.valueOf(LocalDateTime.now());
+        long[] idsClientes = generadorIds.reservar(Cliente.class, nuevos.size());
+        long[] idsMatrices = generadorIds.reservar(Direccion.class, nuevos.size());
+        List<Object[]> clientes = new ArrayList<>(nuevos.size());
+        List<Object[]> matrices = new ArrayList<>(nuevos.size());
+        List<Object[]> claves = new ArrayList<>(nuevos.size() * 2);
+        for (int i = 0; i < nuevos.size(); i++) {
+            ClienteCreateRequest cliente = nuevos.get(i);
+            DireccionRequest matriz = cliente.getDireccionMatriz();
+            clientes.add(new Object[] {idsClientes[i], empresaId, cliente.getTipoIdentificacion(),
+                    cliente.getNumeroIdentificacion(), cliente.getNombres(),
+                    TextoBusqueda.normalizar(cliente.getNombres()), cliente.getCorreo(), cliente.getCelular(), creadoEn});
+            matrices.add(new Object[] {idsMatrices[i], idsClientes[i], matriz.getProvincia(), matriz.getCiudad(),
+                    matriz.getDireccion(), creadoEn});
+            for (String clave : ClaveFonetica.claves(cliente.getNombres())) {
+                claves.add(new Object[] {idsClientes[i], clave});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_CLIENTE, clientes, TIPOS_CLIENTE);
+        jdbcTemplate.batchUpdate(INSERTAR_MATRIZ, matrices, TIPOS_MATRIZ);
+        if (!claves.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERTAR_CLAVE, claves, TIPOS_CLAVE);
+        }
+
+        List<ClienteModificadoEvent> creados = new ArrayList<>(nuevos.size());
+        for (int i = 0; i < nuevos.size(); i++) {
+            ClienteCreateRequest cliente = nuevos.get(i);
+            creados.add(ClienteModificadoEvent.creado(empresaId, idsClientes[i],
+                    cliente.getNombres(), cliente.getNumeroIdentificacion()));
+        }
+        eventPublisher.publishEvent(new ClientesModificadosEvent(empresaId, creados));
+        resultado.importados = nuevos.size();
+        return resultado;
+    }
+
+    private ResultadoLote rechazarLote(List<Fila> lote, DataIntegrityViolationException e) {
+        logger.warn("No se pudo guardar un lote de {} clientes: {}", lote.size(), e.getMostSpecificCause().getMessage());
+        ResultadoLote resultado = new ResultadoLote();
+        String mensaje = "No se pudo guardar el lote: " + e.getMostSpecificCause().getMessage();
+        for (Fila fila : lote) {
+            resultado.rechazos.add(Map.entry(fila, mensaje));
+        }
+        return resultado;
+    }
+
+    private void rechazar(ImportacionClientesResponse resultado, Fila fila, String mensaje) {
+        resultado.setRechazados(resultado.getRechazados() + 1);
+        String numero = fila.getCliente() != null ? fila.getCliente().getNumeroIdentificacion() : null;
+        agregarError(resultado, new ErrorFila(fila.getNumero(), numero, mensaje));
+    }
+
+    private void agregarError(ImportacionClientesResponse resultado, ErrorFila error) {
+        if (resultado.getErrores().size() < erroresMaximos) {
+            resultado.getErrores().add(error);
+        }
+    }
+
+    private static IdentificacionCliente identificacion(ClienteCreateRequest cliente) {
+        return new IdentificacionCliente(cliente.getTipoIdentificacion(), cliente.getNumeroIdentificacion());
+    }
+
+    /**
+     * Resultado de un lote; se aplica a la respuesta solo si la transacción se confirmó
+     */
+    private static final class ResultadoLote {
+        private int importados;
+        private final List<Map.Entry<Fila, String>> rechazos = new ArrayList<>();
+    }
+}
@@ -0,0 +1,130 @@
+package com.alquimiasoft.minegocio.service.importacion;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lee en streaming los clientes a importar, fila por fila, sin cargar el archivo en memoria.
+ *
+ * JSON: un arreglo (o una secuencia) de objetos con la forma de ClienteCreateRequest.
+ * CSV: cabecera con las columnas tipoIdentificacion, numeroIdentificacion, nombres,
+ * correo, celular, provincia, ciudad y direccion (dirección matriz), en cualquier orden.
+ * Una fila que no se puede convertir se devuelve con su error y la lectura sigue;
+ * un archivo mal formado termina la lectura.
+ */
+public final class LectorClientes implements Closeable {
+
+    private static final CsvMapper CSV = new CsvMapper();
+
+    private final MappingIterator<?> filas;
+    private final Function<Object, ClienteCreateRequest> convertir;
+    private long numero;
+    private boolean interrumpida;
+
+    private LectorClientes(MappingIterator<?> filas, Function<Object, ClienteCreateRequest> convertir) {
+        this.filas = filas;
+        this.convertir = convertir;
+    }
+
+    public static LectorClientes json(ObjectMapper objectMapper, InputStream entrada) throws IOException {
+        return new LectorClientes(objectMapper.readerFor(ClienteCreateRequest.class).readValues(entrada),
+                ClienteCreateRequest.class::cast);
+    }
+
+    public static LectorClientes csv(InputStream entrada) throws IOException {
+        CsvSchema cabecera = CsvSchema.emptySchema().withHeader();
+        return new LectorClientes(CSV.readerForMapOf(String.class).with(cabecera).readValues(entrada),
+                fila -> desdeCsv((Map<?, ?>) fila));
+    }
+
+    /**
+     * Lee la siguiente fila
+     * @return La fila leída o null al terminar el archivo
+     */
+    public Fila siguiente() {
+        if (interrumpida) {
+            return null;
+        }
+        long fila = numero + 1;
+        try {
+            if (!filas.hasNextValue()) {
+                return null;
+            }
+            numero = fila;
+            return new Fila(fila, convertir.apply(filas.nextValue()), null);
+        } catch (DatabindException e) {
+            // Fila con tipos o columnas inválidas: MappingIterator salta al siguiente valor
+            numero = fila;
+            return new Fila(fila, null, "Fila inválida: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            interrumpida = true;
+            return new Fila(fila, null, "Archivo mal formado, se detuvo la lectura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * true si la lectura se detuvo antes del final del archivo
+     */
+    public boolean isInterrumpida() {
+        return interrumpida;
+    }
+
+    @Override
+    public void close() throws IOException {
+        filas.close();
+    }
+
+    private static ClienteCreateRequest desdeCsv(Map<?, ?> fila) {
+        DireccionRequest matriz = new DireccionRequest(
+                valor(fila, "provincia"), valor(fila, "ciudad"), valor(fila, "direccion"));
+        return new ClienteCreateRequest(null, valor(fila, "tipoIdentificacion"), valor(fila, "numeroIdentificacion"),
+                valor(fila, "nombres"), valor(fila, "correo"), valor(fila, "celular"), matriz);
+    }
+
+    private static String valor(Map<?, ?> fila, String columna) {
+        Object valor = fila.get(columna);
+        if (valor == null || valor.toString().isBlank()) {
+            return null;
+        }
+        return valor.toString().trim();
+    }
+
+    /**
+     * Fila leída: el cliente o el error que impidió convertirla
+     */
+    public static final class Fila {
+
+        private final long numero;
+        private final ClienteCreateRequest cliente;
+        private final String error;
+
+        Fila(long numero, ClienteCreateRequest cliente, String error) {
+            this.numero = numero;
+            this.cliente = cliente;
+            this.error = error;
+        }
+
+        public long getNumero() {
+            return numero;
+        }
+
+        public ClienteCreateRequest getCliente() {
+            return cliente;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.alquimiasoft.minegocio.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Codificador fonético para nombres en español (variante de metaphone).
+ *
+ * Agrupa las letras que suenan igual en el español de Ecuador: b/v, s/z/c(e,i),
+ * c/k/q, g(e,i)/j/x inicial, ll/y, y omite la h muda y la u de "que", "gue".
+ * Así "Ximena" y "Jimena" o "Gonzales" y "González" producen la misma clave.
+ * Trabaja sobre arreglos de caracteres, sin expresiones regulares, para poder
+ * recalcular millones de claves en un backfill.
+ */
+public final class ClaveFonetica {
+
+    /**
+     * Longitud máxima de una clave (columna cliente_clave_fonetica.clave)
+     */
+    public static final int LONGITUD_MAXIMA = 30;
+
+    /**
+     * Las palabras con clave más corta (iniciales, "s a") no se indexan
+     */
+    private static final int LONGITUD_MINIMA = 2;
+
+    private ClaveFonetica() {}
+
+    /**
+     * Calcula las claves fonéticas de cada palabra de un texto
+     * @param texto Nombres tal como los ingresó el usuario
+     * @return Claves sin repetir, en el orden de las palabras
+     */
+    public static Set<String> claves(String texto) {
+        Set<String> claves = new LinkedHashSet<>();
+        String normalizado = TextoBusqueda.normalizar(texto);
+        int inicio = 0;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            if (i == normalizado.length() || normalizado.charAt(i) == ' ') {
+                if (i > inicio) {
+                    String clave = codificar(normalizado, inicio, i);
+                    if (clave.length() >= LONGITUD_MINIMA) {
+                        claves.add(clave);
+                    }
+                }
+                inicio = i + 1;
+            }
+        }
+        return claves;
+    }
+
+    /**
+     * Codifica una palabra ya normalizada (minúsculas y sin tildes)
+     * @param palabra La palabra
+     * @return La clave fonética en mayúsculas
+     */
+    public static String codificar(String palabra) {
+        return codificar(palabra, 0, palabra.length());
+    }
+
+    private static String codificar(String texto, int desde, int hasta) {
+        StringBuilder clave = new StringBuilder(hasta - desde);
+        for (int i = desde; i < hasta && clave.length() < LONGITUD_MAXIMA; i++) {
+            char c = texto.charAt(i);
+            char siguiente = i + 1 < hasta ? texto.charAt(i + 1) : 0;
+            char codigo;
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u' -> codigo = Character.toUpperCase(c);
+                case 'b', 'v' -> codigo = 'B';
+                case 'c' -> {
+                    if (siguiente == 'h') {
+                        codigo = 'X';
+                        i++;
+                    } else {
+                        codigo = esVocalSuave(siguiente) ? 'S' : 'K';
+                    }
+                }
+                case 'd' -> codigo = 'D';
+                case 'f' -> codigo = 'F';
+                case 'g' -> {
+                    if (esVocalSuave(siguiente)) {
+                        codigo = 'J';
+                    } else {
+                        codigo = 'G';
+                        // "gue", "gui": la u no suena
+                        if (siguiente == 'u' && i + 2 < hasta && esVocalSuave(texto.charAt(i + 2))) {
+                            i++;
+                        }
+                    }
+                }
+                case 'h' -> {
+                    continue;
+                }
+                case 'j' -> codigo = 'J';
+                case 'k' -> codigo = 'K';
+                case 'l' -> {
+                    if (siguiente == 'l') {
+                        codigo = 'Y';
+                        i++;
+                    } else {
+                        codigo = 'L';
+                    }
+                }
+                case 'm' -> codigo = 'M';
+                case 'n' -> codigo = 'N';
+                case 'p' -> {
+                    if (siguiente == 'h') {
+                        codigo = 'F';
+                        i++;
+                    } else {
+                        codigo = 'P';
+                    }
+                }
+                case 'q' -> {
+                    codigo = 'K';
+                    if (siguiente == 'u') {
+                        i++;
+                    }
+                }
+                case 'r' -> codigo = 'R';
+                case 's', 'z' -> codigo = 'S';
+                case 't' -> codigo = 'T';
+                case 'w' -> codigo = 'U';
+                case 'x' -> {
+                    // "Ximena", "Xavier" suenan con j; en medio de palabra es ks
+                    if (i == desde) {
+                        codigo = 'J';
+                    } else {
+                        agregar(clave, 'K');
+                        codigo = 'S';
+                    }
+                }
+                case 'y' -> codigo = siguiente == 0 || !esVocal(siguiente) ? 'I' : 'Y';
+                default -> {
+                    continue;
+                }
+            }
+            agregar(clave, codigo);
+        }
+        return clave.toString();
+    }
+
+    /**
+     * Agrega el código sin repetir el anterior; la x de medio de palabra agrega dos
+     * códigos, así que el límite de la columna se revisa en cada uno
+     */
+    private static void agregar(StringBuilder clave, char codigo) {
+        if (clave.length() >= LONGITUD_MAXIMA) {
+            return;
+        }
+        if (clave.isEmpty() || clave.charAt(clave.length() - 1) != codigo) {
+            clave.append(codigo);
+        }
+    }
+
+    private static boolean esVocalSuave(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
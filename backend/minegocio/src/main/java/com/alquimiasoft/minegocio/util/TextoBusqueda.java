@@ -0,0 +1,102 @@
+package com.alquimiasoft.minegocio.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades para preparar los criterios de búsqueda de clientes
+ */
+public final class TextoBusqueda {
+
+    /**
+     * Carácter de escape usado en los patrones LIKE generados
+     */
+    public static final char ESCAPE_LIKE = '\\';
+
+    private TextoBusqueda() {}
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    /**
+     * Normaliza un texto para búsqueda: minúsculas, sin tildes ni diéresis
+     * ("Núñez" y "Nunez" quedan iguales, la ñ se pliega a n) y con espacios y
+     * signos de puntuación reducidos a un solo espacio.
+     * Es la misma función que llena cliente.nombres_normalizados.
+     * @param texto El texto ingresado por el usuario
+     * @return El texto normalizado o cadena vacía si es null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(sinTildes.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Construye un patrón LIKE de tipo "contiene" ('%texto%') ya normalizado.
+     * La normalización ya elimina '%' y '_'; el escape se mantiene por seguridad.
+     * @param texto El texto ingresado por el usuario
+     * @return El patrón listo para usarse con ESCAPE '\'
+     */
+    public static String patronContiene(String texto) {
+        return "%" + escaparLike(normalizar(texto)) + "%";
+    }
+
+    /**
+     * Construye un patrón LIKE de tipo "empieza por" ('texto%') ya normalizado
+     * @param texto El texto ingresado por el usuario
+     * @return El patrón listo para usarse con ESCAPE '\'
+     */
+    public static String patronPrefijo(String texto) {
+        return escaparLike(normalizar(texto)) + "%";
+    }
+
+    /**
+     * Texto para comparar con LOWER(numero_identificacion): solo minúsculas y sin
+     * espacios alrededor. No se normaliza como los nombres, porque la columna se
+     * guarda tal cual y los guiones o puntos del documento forman parte del valor.
+     * @param texto El texto ingresado por el usuario
+     * @return El texto en minúsculas o cadena vacía si es null
+     */
+    public static String identificacion(String texto) {
+        return texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Patrón LIKE "contiene" para LOWER(numero_identificacion)
+     * @param texto El texto ingresado por el usuario
+     * @return El patrón listo para usarse con ESCAPE '\'
+     */
+    public static String patronIdentificacion(String texto) {
+        return "%" + escaparLike(identificacion(texto)) + "%";
+    }
+
+    /**
+     * Patrón LIKE "empieza por" para LOWER(numero_identificacion)
+     * @param texto El texto ingresado por el usuario
+     * @return El patrón listo para usarse con ESCAPE '\'
+     */
+    public static String prefijoIdentificacion(String texto) {
+        return escaparLike(identificacion(texto)) + "%";
+    }
+
+    /**
+     * Escapa los caracteres especiales de LIKE
+     * @param texto El texto a escapar
+     * @return El texto con '%', '_' y '\' escapados
+     */
+    public static String escaparLike(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length() + 4);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE_LIKE) {
+                sb.append(ESCAPE_LIKE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
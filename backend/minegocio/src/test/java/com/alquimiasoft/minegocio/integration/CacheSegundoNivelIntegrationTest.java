@@ -0,0 +1,144 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de la caché de segundo nivel de Hibernate. No son transaccionales:
+ * la caché solo se actualiza al hacer commit, como en una petición real.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class CacheSegundoNivelIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    private Statistics estadisticas;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ClienteCreateRequest request = new ClienteCreateRequest(
+                14L, "CEDULA", "1401111111", "Carla Cache",
+                "carla@email.com", "0999999999",
+                new DireccionRequest("Loja", "Loja", "Av. Universitaria 10-20"));
+        MvcResult creado = mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        clienteId = objectMapper.readTree(creado.getResponse().getContentAsString())
+                .path("data").path("id").asLong();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mockMvc.perform(delete("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void obtenerCliente_SegundaLectura_DeberiaResolverseSinConsultas() throws Exception {
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk());
+
+        estadisticas.clear();
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nombres").value("Carla Cache"))
+                .andExpect(jsonPath("$.data.direccionMatriz.ciudad").value("Loja"));
+
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void obtenerCliente_DespuesDeActualizar_NoDeberiaLeerDatosViejos() throws Exception {
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.nombres").value("Carla Cache"));
+
+        ClienteUpdateRequest cambio = new ClienteUpdateRequest(
+                "CEDULA", "1401111111", "Carla Renombrada", "carla@email.com", "0999999999");
+        mockMvc.perform(put("/api/clientes/{id}", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cambio)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.nombres").value("Carla Renombrada"));
+    }
+
+    @Test
+    void direcciones_DespuesDeAgregarYEliminar_NoDeberianLeerDatosViejos() throws Exception {
+        // Llena la colección Cliente.direcciones y la caché de consultas
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.direccionesAdicionales[0]").doesNotExist());
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/adicionales", clienteId))
+                .andExpect(jsonPath("$.data.length()").value(0));
+        estadisticas.clear();
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/adicionales", clienteId))
+                .andExpect(jsonPath("$.data.length()").value(0));
+        assertThat(estadisticas.getQueryCacheHitCount()).isPositive();
+
+        DireccionCreateRequest sucursal = new DireccionCreateRequest(clienteId, "Loja", "Catamayo", "Sucursal Norte");
+        mockMvc.perform(post("/api/clientes/direcciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sucursal)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/adicionales", clienteId))
+                .andExpect(jsonPath("$.data.length()").value(1));
+        MvcResult conSucursal = mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.direccionesAdicionales.length()").value(1))
+                .andExpect(jsonPath("$.data.direccionesAdicionales[0].ciudad").value("Catamayo"))
+                .andReturn();
+        long direccionId = objectMapper.readTree(conSucursal.getResponse().getContentAsString())
+                .path("data").path("direccionesAdicionales").path(0).path("id").asLong();
+
+        // Se borra por el lado de Direccion: la colección en caché del cliente debe invalidarse
+        mockMvc.perform(delete("/api/clientes/direcciones/{direccionId}", direccionId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.direccionesAdicionales[0]").doesNotExist());
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/adicionales", clienteId))
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+}
@@ -2,8 +2,19 @@ package com.alquimiasoft.minegocio.integration;
 
 import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionLoteRequest;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +23,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +51,15 @@ class ClienteIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -52,6 +78,410 @@ class ClienteIntegrationTest {
                 .andExpect(jsonPath("$.data").isArray());
     }
 
+    @Test
+    void buscarClientes_DeberiaOrdenarPorRelevanciaYPaginar() throws Exception {
+        crearCliente(7L, "0701111111", "Ana Lopez");
+        crearCliente(7L, "0702222222", "Lopez Vera");
+        crearCliente(7L, "0703333333", "Lopez");
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "7")
+                        .param("busqueda", "lopez")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(header().string("X-Total-Pages", "2"))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].nombres").value("Lopez"))
+                .andExpect(jsonPath("$.data[1].nombres").value("Lopez Vera"));
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "7")
+                        .param("busqueda", "lopez")
+                        .param("size", "2")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].nombres").value("Ana Lopez"));
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "7")
+                        .param("sort", "correo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listarClientes_PorCursor_DeberiaRecorrerTodasLasPaginas() throws Exception {
+        crearCliente(8L, "0801111111", "Ana");
+        crearCliente(8L, "0802222222", "Ana");
+        crearCliente(8L, "0803333333", "Bruno");
+
+        MvcResult primera = mockMvc.perform(get("/api/clientes")
+                        .param("empresaId", "8")
+                        .param("size", "2")
+                        .param("incluirTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.contenido.length()").value(2))
+                .andExpect(jsonPath("$.data.hayMas").value(true))
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andReturn();
+        String cursor = objectMapper.readTree(primera.getResponse().getContentAsString())
+                .path("data").path("siguienteCursor").asText();
+
+        mockMvc.perform(get("/api/clientes")
+                        .param("empresaId", "8")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.contenido.length()").value(1))
+                .andExpect(jsonPath("$.data.contenido[0].nombres").value("Bruno"))
+                .andExpect(jsonPath("$.data.hayMas").value(false))
+                .andExpect(jsonPath("$.data.total").doesNotExist());
+
+        mockMvc.perform(get("/api/clientes")
+                        .param("empresaId", "8")
+                        .param("cursor", cursor)
+                        .param("orden", "creadoEn"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void buscarClientes_NoDeberiaConsultarDireccionesPorCadaCliente() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            crearCliente(9L, "090000000" + i, "Cliente Lote " + i);
+        }
+        // Sin entidades en el contexto de persistencia, como en una petición real
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "9")
+                        .param("busqueda", "lote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(6))
+                .andExpect(jsonPath("$.data[5].direccionMatriz.ciudad").value("Loja"));
+
+        // Página de clientes + direcciones matriz de toda la página
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(estadisticas.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void buscarClientes_SinCriterio_DeberiaTraerSoloLaMatrizEnUnaConsulta() throws Exception {
+        crearCliente(10L, "1001111111", "Sucursales Varias");
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(10L, "1001111111")
+                .orElseThrow().getId();
+        for (int i = 0; i < 3; i++) {
+            DireccionCreateRequest sucursal = new DireccionCreateRequest(
+                    clienteId, "Loja", "Catamayo", "Sucursal " + i);
+            mockMvc.perform(post("/api/clientes/direcciones")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(sucursal)))
+                    .andExpect(status().isCreated());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get("/api/clientes/buscar").param("empresaId", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].direccionMatriz.ciudad").value("Loja"));
+
+        // Un único JOIN proyectado a DTO; ninguna entidad llega al contexto de persistencia
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void crearDireccionAdicional_NoDeberiaCargarLasDireccionesDelCliente() throws Exception {
+        crearCliente(11L, "1101111111", "Muchas Sucursales");
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(11L, "1101111111")
+                .orElseThrow().getId();
+        for (int i = 0; i < 5; i++) {
+            crearSucursal(clienteId, "Sucursal " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        MvcResult resultado = crearSucursal(clienteId, "Sucursal Nueva");
+
+        assertThat(estadisticas.getCollectionFetchCount()).isZero();
+        assertThat(estadisticas.getEntityLoadCount()).isLessThanOrEqualTo(1);
+        long direccionId = objectMapper.readTree(resultado.getResponse().getContentAsString())
+                .path("data").path("id").asLong();
+        assertThat(direccionId).isPositive();
+
+        entityManager.flush();
+        entityManager.clear();
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(7))
+                .andExpect(jsonPath("$.data[?(@.id == " + direccionId + ")].direccion").value("Sucursal Nueva"));
+    }
+
+    @Test
+    void crearDireccionesEnLote_ConNuevaMatriz_DeberiaInsertarEnBatchYCambiarLaMatriz() throws Exception {
+        crearCliente(12L, "1201111111", "Franquicia Norte");
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(12L, "1201111111")
+                .orElseThrow().getId();
+        List<DireccionRequest> sucursales = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            sucursales.add(new DireccionRequest("Pichincha", "Quito", "Local " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(post("/api/clientes/{clienteId}/direcciones/lote", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DireccionLoteRequest(sucursales, 7))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.length()").value(120))
+                .andExpect(jsonPath("$.data[7].esMatriz").value(true))
+                .andExpect(jsonPath("$.data[8].esMatriz").value(false));
+        entityManager.flush();
+
+        // Cliente, UPDATE de la matriz, secuencia e INSERT en batch; nunca uno por sucursal
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThan(10);
+        assertThat(estadisticas.getCollectionFetchCount()).isZero();
+
+        entityManager.clear();
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/matriz", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.direccion").value("Local 7"));
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/adicionales", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(120));
+    }
+
+    @Test
+    void crearDireccionesEnLote_ConPosicionInvalida_DeberiaRetornarBadRequest() throws Exception {
+        crearCliente(12L, "1202222222", "Franquicia Sur");
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(12L, "1202222222")
+                .orElseThrow().getId();
+
+        mockMvc.perform(post("/api/clientes/{clienteId}/direcciones/lote", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DireccionLoteRequest(
+                                List.of(new DireccionRequest("Loja", "Loja", "Local 1")), 3))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("nueva matriz")));
+    }
+
+    @Test
+    void eliminarDireccionesEnLote_DeberiaEliminarSoloAdicionalesDelCliente() throws Exception {
+        crearCliente(13L, "1301111111", "Franquicia Este");
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(13L, "1301111111")
+                .orElseThrow().getId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            MvcResult resultado = crearSucursal(clienteId, "Sucursal " + i);
+            ids.add(objectMapper.readTree(resultado.getResponse().getContentAsString())
+                    .path("data").path("id").asLong());
+        }
+        long matrizId = objectMapper.readTree(mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/matriz", clienteId))
+                .andReturn().getResponse().getContentAsString()).path("data").path("id").asLong();
+
+        // Con la matriz en la lista no se elimina ninguna
+        mockMvc.perform(delete("/api/clientes/{clienteId}/direcciones/lote", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(ids.get(0), matrizId))))
+                .andExpect(status().isBadRequest());
+        // Un id inexistente tampoco
+        mockMvc.perform(delete("/api/clientes/{clienteId}/direcciones/lote", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(ids.get(0), 999_999L))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("999999")));
+
+        mockMvc.perform(delete("/api/clientes/{clienteId}/direcciones/lote", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids.subList(0, 3))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Se eliminaron 3 direcciones"));
+
+        entityManager.flush();
+        entityManager.clear();
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].id").value(ids.get(3)));
+    }
+
+    @Test
+    void eliminarClientes_DeberiaBorrarEnCascadaYDejarConsistenteElContexto() throws Exception {
+        crearCliente(19L, "1901111111", "Cliente Lote Uno");
+        crearCliente(19L, "1902222222", "Cliente Lote Dos");
+        crearCliente(19L, "1903333333", "Cliente Lote Tres");
+        Long unoId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(19L, "1901111111").orElseThrow().getId();
+        Long dosId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(19L, "1902222222").orElseThrow().getId();
+        Long sucursalId = objectMapper.readTree(crearSucursal(unoId, "Sucursal Lote").getResponse().getContentAsString())
+                .path("data").path("id").asLong();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Cliente, direcciones y claves cargados en el contexto de persistencia
+        Cliente cargado = clienteRepository.findByIdWithDirecciones(unoId).orElseThrow();
+        assertThat(cargado.getDirecciones()).hasSize(2);
+        assertThat(cargado.getClavesFoneticas()).isNotEmpty();
+        Cliente ajeno = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(19L, "1903333333").orElseThrow();
+
+        // Con un id inexistente no se elimina ninguno
+        mockMvc.perform(delete("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(unoId, 999_999L))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("999999")));
+        assertThat(contar("SELECT COUNT(*) FROM cliente WHERE empresa_id = 19")).isEqualTo(3);
+
+        mockMvc.perform(delete("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(unoId, dosId, unoId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Se eliminaron 2 clientes"));
+
+        assertThat(entityManager.contains(cargado)).isFalse();
+        // Solo se separan los clientes eliminados y sus direcciones
+        assertThat(entityManager.contains(ajeno)).isTrue();
+        assertThat(entityManager.find(Cliente.class, unoId)).isNull();
+        assertThat(entityManager.find(Direccion.class, sucursalId)).isNull();
+        assertThat(entityManagerFactory.getCache().contains(Direccion.class, sucursalId)).isFalse();
+        assertThat(contar("SELECT COUNT(*) FROM direccion WHERE cliente_id IN (" + unoId + ", " + dosId + ")"))
+                .isZero();
+        assertThat(contar("SELECT COUNT(*) FROM cliente_clave_fonetica WHERE cliente_id IN ("
+                + unoId + ", " + dosId + ")")).isZero();
+        mockMvc.perform(get("/api/clientes/{clienteId}/direcciones/matriz", unoId))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void buscarClientes_SinDistinguirMayusculas_DeberiaEncontrarCliente() throws Exception {
+        DireccionRequest direccionRequest = new DireccionRequest("Azuay", "Cuenca", "Calle Larga 1-20");
+        ClienteCreateRequest request = new ClienteCreateRequest(
+                1L, "CEDULA", "0301234567", "Maria Del_Campo",
+                "maria@email.com", "0999999999", direccionRequest);
+
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "1")
+                        .param("busqueda", "DEL_CAMPO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].numeroIdentificacion").value("0301234567"));
+
+        // '_' se busca literalmente, no como comodín
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "1")
+                        .param("busqueda", "del_c_mpo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+
+    @Test
+    void buscarClientes_EnModoFulltext_DeberiaResponderYValidarModo() throws Exception {
+        crearCliente(11L, "1101111111", "Ferretería Austral");
+
+        // En H2 no hay tsvector: el modo fulltext se resuelve por subcadena
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "11")
+                        .param("busqueda", "austral")
+                        .param("modo", "fulltext"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "11")
+                        .param("busqueda", "austral")
+                        .param("modo", "soundex"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void buscarClientes_SinTildes_DeberiaEncontrarNombresConTildes() throws Exception {
+        crearCliente(12L, "1201111111", "José Núñez Peña");
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "12")
+                        .param("busqueda", "nunez pena"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].nombres").value("José Núñez Peña"));
+
+        // Al renombrar se recalcula la columna normalizada
+        Long clienteId = clienteRepository.findByEmpresaIdAndNumeroIdentificacion(12L, "1201111111")
+                .orElseThrow().getId();
+        ClienteUpdateRequest cambio = new ClienteUpdateRequest(
+                "CEDULA", "1201111111", "Íñigo Ibáñez", "cliente@email.com", "0999999999");
+        mockMvc.perform(put("/api/clientes/{id}", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cambio)))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "12")
+                        .param("busqueda", "IBANEZ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    void buscarClientes_EnModoFonetico_DeberiaEncontrarNombresMalEscritos() throws Exception {
+        crearCliente(13L, "1301111111", "Ximena González");
+        crearCliente(13L, "1302222222", "Jimena Torres");
+        crearCliente(13L, "1303333333", "Gema Gonzaga");
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "13")
+                        .param("busqueda", "jimena gonzales")
+                        .param("modo", "fonetico"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].numeroIdentificacion").value("1301111111"))
+                .andExpect(jsonPath("$.data[0].direccionMatriz.ciudad").value("Loja"));
+
+        mockMvc.perform(get("/api/clientes/buscar")
+                        .param("empresaId", "13")
+                        .param("busqueda", "Ximena")
+                        .param("modo", "fonetico"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
+    @Test
+    void sugerirClientes_DeberiaRetornarSugerenciasLivianas() throws Exception {
+        DireccionRequest direccionRequest = new DireccionRequest("Guayas", "Guayaquil", "Av. 9 de Octubre");
+        ClienteCreateRequest request = new ClienteCreateRequest(
+                1L, "CEDULA", "0912345678", "Zoila Zambrano",
+                "zoila@email.com", "0999999999", direccionRequest);
+
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/clientes/sugerencias")
+                        .param("empresaId", "1")
+                        .param("prefijo", "zamb")
+                        .param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].texto").value("Zoila Zambrano"))
+                .andExpect(jsonPath("$.data[0].tipo").value("NOMBRE"))
+                .andExpect(jsonPath("$.data[0].direccionMatriz").doesNotExist());
+    }
+
     @Test
     void crearCliente_ConDatosValidos_DeberiaCrearCliente() throws Exception {
         // Given
@@ -100,8 +530,8 @@ class ClienteIntegrationTest {
                 .andExpect(status().isCreated())
                 .andReturn().getResponse().getContentAsString();
 
-        // Extraer ID del cliente creado
-        Long clienteId = 1L; // Asumiendo que es el primer cliente
+        // Extraer ID del cliente creado (otras clases de test pueden haber hecho commit de clientes)
+        Long clienteId = objectMapper.readTree(createResponse).path("data").path("id").asLong();
 
         // Ahora actualizar
         ClienteUpdateRequest updateRequest = new ClienteUpdateRequest(
@@ -160,4 +590,68 @@ class ClienteIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data").isArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void buscarIdentificacionesExistentes_DeberiaVerificarTodasEnBloques() throws Exception {
+        crearCliente(17L, "1700000001", "Ana Lopez");
+        crearCliente(17L, "1700001500", "Bruno Bravo");
+        crearCliente(18L, "1700000002", "Otra Empresa");
+
+        // Más identificaciones que un bloque IN, con repetidas y el mismo número con otro tipo
+        List<IdentificacionCliente> identificaciones = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            identificaciones.add(new IdentificacionCliente("CEDULA", String.format("17%08d", i)));
+        }
+        identificaciones.add(new IdentificacionCliente("RUC", "1700000001"));
+        identificaciones.add(new IdentificacionCliente("CEDULA", "1700000001"));
+
+        mockMvc.perform(post("/api/clientes/identificaciones/existentes")
+                        .param("empresaId", "17")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(identificaciones)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].numeroIdentificacion").value("1700000001"))
+                .andExpect(jsonPath("$.data[0].tipoIdentificacion").value("CEDULA"))
+                .andExpect(jsonPath("$.data[1].numeroIdentificacion").value("1700001500"));
+    }
+
+    @Test
+    void buscarIdentificacionesExistentes_ConElementoInvalido_DeberiaRetornarBadRequest() throws Exception {
+        mockMvc.perform(post("/api/clientes/identificaciones/existentes")
+                        .param("empresaId", "17")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"tipoIdentificacion\":\"CEDULA\",\"numeroIdentificacion\":\"1700000001\"},"
+                                + "{\"tipoIdentificacion\":\"CEDULA\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data['identificaciones[1].numeroIdentificacion']")
+                        .value("El número de identificación es obligatorio"));
+    }
+
+    private long contar(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private MvcResult crearSucursal(Long clienteId, String direccion) throws Exception {
+        DireccionCreateRequest sucursal = new DireccionCreateRequest(clienteId, "Loja", "Catamayo", direccion);
+        return mockMvc.perform(post("/api/clientes/direcciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sucursal)))
+                .andExpect(status().isCreated())
+                .andReturn();
+    }
+
+    private void crearCliente(Long empresaId, String numeroIdentificacion, String nombres) throws Exception {
+        DireccionRequest direccionRequest = new DireccionRequest("Loja", "Loja", "Av. Universitaria 10-20");
+        ClienteCreateRequest request = new ClienteCreateRequest(
+                empresaId, "CEDULA", numeroIdentificacion, nombres,
+                "cliente@email.com", "0999999999", direccionRequest);
+
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+}
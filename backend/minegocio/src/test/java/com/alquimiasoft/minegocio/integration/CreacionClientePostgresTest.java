@@ -0,0 +1,158 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.alquimiasoft.minegocio.exception.BusinessException;
+import com.alquimiasoft.minegocio.repository.DireccionRepository;
+import com.alquimiasoft.minegocio.service.ClienteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Prueba crearCliente con INSERT ... ON CONFLICT contra un PostgreSQL local. Se ejecuta
+ * solo con -Dpostgres.url=jdbc:postgresql://localhost:5432/mi_negocio_db (la empresa 1
+ * debe existir). No es transaccional: las creaciones compiten en transacciones propias.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class CreacionClientePostgresTest {
+
+    private static final long EMPRESA_ID = 1L;
+    private static final String NUMERO = "7900000001";
+    private static final String OTRO_NUMERO = "7900000002";
+    private static final int CONCURRENTES = 8;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private DireccionRepository direccionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDatos(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", () -> System.getProperty("postgres.url"));
+        registro.add("spring.datasource.username", () -> System.getProperty("postgres.usuario", "postgres"));
+        registro.add("spring.datasource.password", () -> System.getProperty("postgres.password", ""));
+        registro.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registro.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registro.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registro.add("spring.jpa.show-sql", () -> "false");
+        registro.add("spring.liquibase.enabled", () -> "true");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cliente WHERE empresa_id = ? AND numero_identificacion IN (?, ?)",
+                EMPRESA_ID, NUMERO, OTRO_NUMERO);
+    }
+
+    @Test
+    void crearCliente_DeberiaInsertarClienteMatrizYClavesEnUnaSentencia() {
+        ClienteResponse creado = clienteService.crearCliente(solicitud("Ximena González"));
+
+        assertThat(creado.getId()).isNotNull();
+        assertThat(creado.getCreadoEn()).isNotNull();
+        assertThat(creado.getDireccionMatriz().getId()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT nombres_normalizados FROM cliente WHERE id = ?",
+                String.class, creado.getId())).isEqualTo("ximena gonzalez");
+        assertThat(jdbcTemplate.queryForList("SELECT clave FROM cliente_clave_fonetica WHERE cliente_id = ?",
+                String.class, creado.getId())).hasSize(2);
+        // El trigger de la dirección matriz completa busqueda_fts en la misma sentencia
+        assertThat(jdbcTemplate.queryForObject("SELECT busqueda_fts @@ to_tsquery('es_unaccent', 'cuenca') "
+                + "FROM cliente WHERE id = ?", Boolean.class, creado.getId())).isTrue();
+
+        assertThatThrownBy(() -> clienteService.crearCliente(solicitud("Otro Nombre")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Ya existe un cliente");
+    }
+
+    @Test
+    void crearCliente_DeberiaMarcarComoViejasLasConsultasCacheadasDeDirecciones() {
+        Long clienteId = clienteService.crearCliente(solicitud("Cliente Cacheado")).getId();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        direccionRepository.findResponsesByClienteId(clienteId);
+        long aciertos = estadisticas.getQueryCacheHitCount();
+        direccionRepository.findResponsesByClienteId(clienteId);
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(aciertos + 1);
+
+        // La inserción por JDBC de otro cliente actualiza la marca de tiempo de direccion
+        clienteService.crearCliente(new ClienteCreateRequest(EMPRESA_ID, "CEDULA", OTRO_NUMERO, "Otro Cliente",
+                null, "0999999999", new DireccionRequest("Azuay", "Cuenca", "Gran Colombia 1-10")));
+        long fallos = estadisticas.getQueryCacheMissCount();
+        assertThat(direccionRepository.findResponsesByClienteId(clienteId)).hasSize(1);
+        assertThat(estadisticas.getQueryCacheMissCount()).isEqualTo(fallos + 1);
+    }
+
+    @Test
+    void crearCliente_Concurrente_DeberiaCrearUnoYRechazarLosDemasComoDuplicados() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(CONCURRENTES);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<ClienteResponse>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENTES; i++) {
+                String nombres = "Cliente Concurrente " + i;
+                Callable<ClienteResponse> crear = () -> {
+                    salida.await();
+                    return clienteService.crearCliente(solicitud(nombres));
+                };
+                resultados.add(hilos.submit(crear));
+            }
+            salida.countDown();
+
+            int creados = 0;
+            int duplicados = 0;
+            for (Future<ClienteResponse> resultado : resultados) {
+                try {
+                    resultado.get();
+                    creados++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(BusinessException.class)
+                            .hasMessageContaining("Ya existe un cliente");
+                    duplicados++;
+                }
+            }
+            assertThat(creados).isEqualTo(1);
+            assertThat(duplicados).isEqualTo(CONCURRENTES - 1);
+        } finally {
+            hilos.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM direccion d JOIN cliente c ON c.id = d.cliente_id "
+                + "WHERE c.empresa_id = ? AND c.numero_identificacion = ?", Long.class, EMPRESA_ID, NUMERO))
+                .isEqualTo(1);
+    }
+
+    private static ClienteCreateRequest solicitud(String nombres) {
+        return new ClienteCreateRequest(EMPRESA_ID, "CEDULA", NUMERO, nombres, null, "0999999999",
+                new DireccionRequest("Azuay", "Cuenca", "Calle Larga 7-45"));
+    }
+}
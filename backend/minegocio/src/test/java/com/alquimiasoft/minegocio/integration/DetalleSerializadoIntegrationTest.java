@@ -0,0 +1,123 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.alquimiasoft.minegocio.service.ClienteService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de GET /api/clientes/{id} con el JSON del cliente pre-serializado.
+ * No son transaccionales: la caché se descarta tras el commit de cada cambio.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "minegocio.clientes.detalle-serializado.habilitado=true")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class DetalleSerializadoIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    private MockMvc mockMvc;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        ClienteCreateRequest request = new ClienteCreateRequest(
+                15L, "CEDULA", "1501111111", "Sofía Serializada",
+                "sofia@email.com", "0999999999",
+                new DireccionRequest("Azuay", "Cuenca", "Calle Larga 7-45"));
+        MvcResult creado = mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        clienteId = objectMapper.readTree(creado.getResponse().getContentAsString())
+                .path("data").path("id").asLong();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mockMvc.perform(delete("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void obtenerCliente_DeberiaResponderIgualQueLaSerializacionNormal() throws Exception {
+        mockMvc.perform(get("/api/clientes/{id}", clienteId)).andExpect(status().isOk());
+        MvcResult resultado = mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        byte[] cuerpo = resultado.getResponse().getContentAsByteArray();
+        JsonNode respuesta = objectMapper.readTree(cuerpo);
+        assertThat(resultado.getResponse().getContentLength()).isEqualTo(cuerpo.length);
+        assertThat(respuesta.fieldNames()).toIterable()
+                .containsExactly("success", "message", "data", "timestamp");
+        assertThat(respuesta.path("success").asBoolean()).isTrue();
+        assertThat(respuesta.path("message").asText()).isEqualTo("Cliente obtenido exitosamente");
+        assertThat(respuesta.path("data"))
+                .isEqualTo(objectMapper.readTree(
+                        objectMapper.writeValueAsBytes(clienteService.obtenerClientePorId(clienteId))));
+        assertThat(respuesta.path("timestamp").asText()).isNotBlank();
+    }
+
+    @Test
+    void obtenerCliente_DespuesDeCambios_NoDeberiaServirJsonViejo() throws Exception {
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.nombres").value("Sofía Serializada"));
+
+        ClienteUpdateRequest cambio = new ClienteUpdateRequest(
+                "CEDULA", "1501111111", "Sofía Actualizada", "sofia@email.com", "0999999999");
+        mockMvc.perform(put("/api/clientes/{id}", clienteId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cambio)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.nombres").value("Sofía Actualizada"));
+
+        DireccionCreateRequest sucursal = new DireccionCreateRequest(clienteId, "Azuay", "Gualaceo", "Sucursal Sur");
+        mockMvc.perform(post("/api/clientes/direcciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sucursal)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/clientes/{id}", clienteId))
+                .andExpect(jsonPath("$.data.direccionesAdicionales[0].ciudad").value("Gualaceo"));
+    }
+
+    @Test
+    void obtenerCliente_Inexistente_DeberiaResponderErrorComoAntes() throws Exception {
+        mockMvc.perform(get("/api/clientes/{id}", 999999L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
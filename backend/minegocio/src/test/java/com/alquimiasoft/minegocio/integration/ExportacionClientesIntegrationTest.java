@@ -0,0 +1,135 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de GET /api/clientes/exportar. filas-por-lectura=2 para que el cursor
+ * necesite varias lecturas y un cliente quede repartido entre ellas.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "minegocio.clientes.exportacion.filas-por-lectura=2")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class ExportacionClientesIntegrationTest {
+
+    private static final long EMPRESA = 20L;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        long zoilaId = crearCliente("2001111111", "Zoila Zambrano");
+        crearCliente("2002222222", "Andrés, \"El Grande\"");
+        crearSucursal(zoilaId, "Sucursal Norte");
+        crearSucursal(zoilaId, "Sucursal Sur");
+        crearCliente("2003333333", "Otra Empresa", EMPRESA + 1);
+    }
+
+    @Test
+    void exportarCsv_DeberiaEscribirUnaFilaPorDireccionConLaMatrizPrimero() throws Exception {
+        String csv = mockMvc.perform(get("/api/clientes/exportar")
+                        .param("empresaId", String.valueOf(EMPRESA))
+                        .param("formato", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"clientes-20.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lineas = csv.lines().toList();
+        assertThat(lineas).hasSize(5);
+        assertThat(lineas.get(0)).isEqualTo("clienteId,tipoIdentificacion,numeroIdentificacion,nombres,correo,"
+                + "celular,creadoEn,direccionId,esMatriz,provincia,ciudad,direccion");
+        // Orden por nombres; las comas y comillas van escapadas
+        assertThat(lineas.get(1)).contains("\"Andrés, \"\"El Grande\"\"\"").contains(",true,Loja,Loja,");
+        assertThat(lineas.get(2)).contains("2001111111").contains(",true,Loja,Loja,");
+        assertThat(lineas.get(3)).contains("2001111111").endsWith(",false,Loja,Catamayo,\"Sucursal Norte\"");
+        assertThat(lineas.get(4)).contains("2001111111").endsWith(",false,Loja,Catamayo,\"Sucursal Sur\"");
+        assertThat(csv).doesNotContain("2003333333");
+    }
+
+    @Test
+    void exportarNdjson_DeberiaEscribirUnClientePorLinea() throws Exception {
+        String ndjson = mockMvc.perform(get("/api/clientes/exportar")
+                        .param("empresaId", String.valueOf(EMPRESA))
+                        .param("formato", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(ndjson).endsWith("\n");
+        List<String> lineas = ndjson.lines().toList();
+        assertThat(lineas).hasSize(2);
+        JsonNode andres = objectMapper.readTree(lineas.get(0));
+        JsonNode zoila = objectMapper.readTree(lineas.get(1));
+        assertThat(andres.path("nombres").asText()).isEqualTo("Andrés, \"El Grande\"");
+        assertThat(andres.path("direccionesAdicionales")).isEmpty();
+        assertThat(zoila.path("empresaId").asLong()).isEqualTo(EMPRESA);
+        assertThat(zoila.path("direccionMatriz").path("esMatriz").asBoolean()).isTrue();
+        assertThat(zoila.path("direccionesAdicionales").findValues("direccion")).extracting(JsonNode::asText)
+                .containsExactly("Sucursal Norte", "Sucursal Sur");
+    }
+
+    @Test
+    void exportar_ConFormatoInvalido_DeberiaRetornarBadRequest() throws Exception {
+        mockMvc.perform(get("/api/clientes/exportar")
+                        .param("empresaId", String.valueOf(EMPRESA))
+                        .param("formato", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Formato de exportación no válido: xml"));
+    }
+
+    private long crearCliente(String numero, String nombres) throws Exception {
+        return crearCliente(numero, nombres, EMPRESA);
+    }
+
+    private long crearCliente(String numero, String nombres, long empresaId) throws Exception {
+        ClienteCreateRequest request = new ClienteCreateRequest(empresaId, "CEDULA", numero, nombres,
+                null, "0999999999", new DireccionRequest("Loja", "Loja", "Matriz " + numero));
+        String respuesta = mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).path("data").path("id").asLong();
+    }
+
+    private void crearSucursal(long clienteId, String direccion) throws Exception {
+        DireccionCreateRequest sucursal = new DireccionCreateRequest(clienteId, "Loja", "Catamayo", direccion);
+        mockMvc.perform(post("/api/clientes/direcciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sucursal)))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,174 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de POST /api/clientes/importar. No son transaccionales: cada lote
+ * se confirma por separado. Lotes de 2 filas para cubrir varios lotes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "minegocio.clientes.importacion.tamano-lote=2")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ImportacionClientesIntegrationTest {
+
+    private static final long EMPRESA = 16L;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cliente_clave_fonetica WHERE cliente_id IN "
+                + "(SELECT id FROM cliente WHERE empresa_id = ?)", EMPRESA);
+        jdbcTemplate.update("DELETE FROM direccion WHERE cliente_id IN "
+                + "(SELECT id FROM cliente WHERE empresa_id = ?)", EMPRESA);
+        jdbcTemplate.update("DELETE FROM cliente WHERE empresa_id = ?", EMPRESA);
+    }
+
+    @Test
+    void importarJson_DeberiaGuardarValidosEInformarErroresPorFila() throws Exception {
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cliente("1600000000", "Cliente Existente", "a@b.com"))))
+                .andExpect(status().isCreated());
+
+        List<ClienteCreateRequest> filas = new ArrayList<>();
+        filas.add(cliente("1601111111", "Ximena González", "ximena@email.com"));
+        filas.add(cliente("1602222222", "Pedro Páez", "pedro@email.com"));
+        ClienteCreateRequest tipoInvalido = cliente("1603333333", "Tipo Invalido", null);
+        tipoInvalido.setTipoIdentificacion("XYZ");
+        filas.add(tipoInvalido);
+        filas.add(cliente("1600000000", "Ya Existe", null));
+        filas.add(cliente("1601111111", "Repetida En Otro Lote", null));
+        filas.add(cliente("1604444444", "Carlos Cevallos", null));
+        filas.add(cliente("1604444444", "Repetida En El Lote", null));
+        filas.add(cliente("1605555555", "Correo Invalido", "no-es-correo"));
+        filas.add(cliente("1606666666", "Diana Durán", null));
+
+        JsonNode resultado = importar(MediaType.APPLICATION_JSON, objectMapper.writeValueAsString(filas));
+
+        assertThat(resultado.path("filas").asLong()).isEqualTo(9);
+        assertThat(resultado.path("importados").asLong()).isEqualTo(4);
+        assertThat(resultado.path("rechazados").asLong()).isEqualTo(5);
+        assertThat(resultado.path("interrumpida").asBoolean()).isFalse();
+        assertThat(resultado.path("errores").findValues("fila")).extracting(JsonNode::asLong)
+                .containsExactly(3L, 4L, 5L, 7L, 8L);
+        assertThat(resultado.path("errores").get(1).path("mensaje").asText()).contains("Ya existe");
+        assertThat(contarClientes()).isEqualTo(5);
+
+        // Importados igual que por la API: dirección matriz, nombres normalizados y claves fonéticas
+        JsonNode ximena = buscar("1601111111", null).get(0);
+        mockMvc.perform(get("/api/clientes/{id}", ximena.path("id").asLong()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.direccionMatriz.ciudad").value("Cuenca"))
+                .andExpect(jsonPath("$.data.direccionMatriz.esMatriz").value(true));
+        assertThat(buscar("gonzalez", null).findValues("nombres")).extracting(JsonNode::asText)
+                .containsExactly("Ximena González");
+        assertThat(buscar("Jimena Gonzales", "fonetico").findValues("nombres")).extracting(JsonNode::asText)
+                .containsExactly("Ximena González");
+    }
+
+    @Test
+    void importarCsv_ConColumnasEnOtroOrden_DeberiaImportar() throws Exception {
+        String csv = """
+                nombres,numeroIdentificacion,tipoIdentificacion,provincia,ciudad,direccion,correo,celular
+                Ana Andrade,1611111111,CEDULA,Pichincha,Quito,Av. Amazonas N24,ana@email.com,0991111111
+                ,1612222222,CEDULA,Pichincha,Quito,Sin nombres,,
+                Bruno Bravo,1613333333001,RUC,Guayas,Guayaquil,Av. 9 de Octubre,,
+                """;
+
+        JsonNode resultado = importar(MediaType.parseMediaType("text/csv"), csv);
+
+        assertThat(resultado.path("importados").asLong()).isEqualTo(2);
+        assertThat(resultado.path("rechazados").asLong()).isEqualTo(1);
+        assertThat(resultado.path("errores").get(0).path("fila").asLong()).isEqualTo(2);
+        assertThat(resultado.path("errores").get(0).path("mensaje").asText()).contains("nombres son obligatorios");
+        assertThat(buscar("Bravo", null).get(0).path("tipoIdentificacion").asText()).isEqualTo("RUC");
+    }
+
+    @Test
+    void importarJson_MalFormado_DeberiaConservarLoLeidoYDetenerse() throws Exception {
+        String json = "[" + objectMapper.writeValueAsString(cliente("1621111111", "Elena Espinoza", null))
+                + ",{\"empresaId\":\"no-es-numero\",\"nombres\":\"Tipo Incorrecto\"},"
+                + objectMapper.writeValueAsString(cliente("1622222222", "Fabián Flores", null))
+                + ",{\"nombres\":";
+
+        JsonNode resultado = importar(MediaType.APPLICATION_JSON, json);
+
+        assertThat(resultado.path("importados").asLong()).isEqualTo(2);
+        assertThat(resultado.path("rechazados").asLong()).isEqualTo(1);
+        assertThat(resultado.path("interrumpida").asBoolean()).isTrue();
+        assertThat(resultado.path("errores").findValues("fila")).extracting(JsonNode::asLong)
+                .containsExactly(2L, 4L);
+        assertThat(contarClientes()).isEqualTo(2);
+    }
+
+    private JsonNode importar(MediaType tipo, String cuerpo) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/clientes/importar")
+                        .param("empresaId", String.valueOf(EMPRESA))
+                        .contentType(tipo)
+                        .content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).path("data");
+    }
+
+    private JsonNode buscar(String busqueda, String modo) throws Exception {
+        var peticion = get("/api/clientes/buscar")
+                .param("empresaId", String.valueOf(EMPRESA))
+                .param("busqueda", busqueda);
+        if (modo != null) {
+            peticion.param("modo", modo);
+        }
+        String respuesta = mockMvc.perform(peticion)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).path("data");
+    }
+
+    private long contarClientes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cliente WHERE empresa_id = ?", Long.class, EMPRESA);
+    }
+
+    private static ClienteCreateRequest cliente(String numero, String nombres, String correo) {
+        return new ClienteCreateRequest(EMPRESA, numero.length() == 13 ? "RUC" : "CEDULA", numero, nombres,
+                correo, "0999999999", new DireccionRequest("Azuay", "Cuenca", "Calle Larga 7-45"));
+    }
+}
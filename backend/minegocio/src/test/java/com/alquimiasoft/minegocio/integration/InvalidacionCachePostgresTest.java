@@ -0,0 +1,202 @@
+package com.alquimiasoft.minegocio.integration;
+
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceSugerencias;
+import com.alquimiasoft.minegocio.service.cache.BusInvalidacionCache;
+import com.alquimiasoft.minegocio.service.cache.CacheDetalleClientes;
+import com.alquimiasoft.minegocio.service.cache.CoalescedorLecturas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba el bus LISTEN/NOTIFY contra un PostgreSQL local. Se ejecuta solo con
+ * -Dpostgres.url=jdbc:postgresql://localhost:5432/mi_negocio_db
+ * (opcionales -Dpostgres.usuario y -Dpostgres.password).
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class InvalidacionCachePostgresTest {
+
+    private static final long ESPERA_MS = 5000;
+
+    @Mock
+    private CacheBusquedaClientes cacheBusqueda;
+
+    @Mock
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Mock
+    private IndiceSugerencias indiceSugerencias;
+
+    @Mock
+    private CoalescedorLecturas coalescedor;
+
+    @Mock
+    private CacheDetalleClientes cacheDetalle;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private CacheImplementor segundoNivel;
+
+    @Mock
+    private TimestampsCache marcasConsultas;
+
+    @Mock
+    private SessionImplementor sesion;
+
+    @Mock
+    private BaseDatosInfo baseDatos;
+
+    @Spy
+    private DataSourceProperties dataSourceProperties = new DataSourceProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BusInvalidacionCache bus;
+
+    private Connection otroNodo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSourceProperties.setUrl(System.getProperty("postgres.url"));
+        dataSourceProperties.setUsername(System.getProperty("postgres.usuario", "postgres"));
+        dataSourceProperties.setPassword(System.getProperty("postgres.password", ""));
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(segundoNivel);
+        when(sessionFactory.openSession()).thenReturn(sesion);
+        when(segundoNivel.getTimestampsCache()).thenReturn(marcasConsultas);
+        ReflectionTestUtils.setField(bus, "habilitado", true);
+        ReflectionTestUtils.setField(bus, "reintento", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(bus, "espera", Duration.ofMillis(500));
+        ReflectionTestUtils.invokeMethod(bus, "registrarMetricas");
+
+        otroNodo = DriverManager.getConnection(dataSourceProperties.getUrl(),
+                dataSourceProperties.getUsername(), dataSourceProperties.getPassword());
+        bus.start();
+        esperar(bus::isConectado);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bus.stop();
+        otroNodo.close();
+    }
+
+    @Test
+    void notify_DeOtroNodo_DeberiaInvalidarCachesLocales() throws Exception {
+        try (Statement sentencia = otroNodo.createStatement()) {
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:7:42:5'");
+        }
+
+        verify(cacheBusqueda, timeout(ESPERA_MS)).invalidar(7L);
+        verify(segundoNivel, timeout(ESPERA_MS)).evictEntityData(Direccion.class, 5L);
+        verify(marcasConsultas, timeout(ESPERA_MS)).invalidate(new String[] {"cliente", "direccion"}, sesion);
+    }
+
+    @Test
+    void notify_DelMismoNodo_DeberiaIgnorarse() throws Exception {
+        // Mismo payload que emite el nodo; PostgreSQL también se lo entrega a su listener
+        try (PreparedStatement propia = otroNodo.prepareStatement("SELECT pg_notify(?, ?)")) {
+            propia.setString(1, BusInvalidacionCache.CANAL);
+            propia.setString(2, ReflectionTestUtils.invokeMethod(bus, "payload", 6L,
+                    List.of(ClienteModificadoEvent.eliminado(6L, 1L))));
+            propia.execute();
+        }
+        try (Statement sentencia = otroNodo.createStatement()) {
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:9:1'");
+        }
+
+        verify(cacheBusqueda, timeout(ESPERA_MS)).invalidar(9L);
+        verify(cacheBusqueda, never()).invalidar(6L);
+    }
+
+    @Test
+    void notify_QueFallaAlAplicarse_NoDeberiaDetenerElListener() throws Exception {
+        doThrow(new IllegalStateException("caché no disponible")).when(cacheBusqueda).invalidar(5L);
+        try (Statement sentencia = otroNodo.createStatement()) {
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:5:1'");
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:9:1'");
+        }
+
+        verify(cacheBusqueda, timeout(ESPERA_MS)).invalidar(9L);
+        assertThat(bus.isConectado()).isTrue();
+    }
+
+    @Test
+    void notify_EnTransaccionRevertida_NoDeberiaEntregarse() throws Exception {
+        otroNodo.setAutoCommit(false);
+        try (Statement sentencia = otroNodo.createStatement()) {
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:8:1'");
+            otroNodo.rollback();
+            sentencia.execute("NOTIFY " + BusInvalidacionCache.CANAL + ", 'otro-nodo:9:1'");
+            otroNodo.commit();
+        }
+
+        verify(cacheBusqueda, timeout(ESPERA_MS)).invalidar(9L);
+        verify(cacheBusqueda, never()).invalidar(8L);
+    }
+
+    @Test
+    void conexionCaida_DeberiaReconectarYVaciarCaches() throws Exception {
+        try (Statement sentencia = otroNodo.createStatement()) {
+            sentencia.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity " +
+                    "WHERE application_name = 'minegocio-cache-listen'");
+        }
+
+        esperar(() -> !bus.isConectado());
+        esperar(bus::isConectado);
+        // Las notificaciones del corte pudieron perderse: se vacía todo
+        verify(cacheBusqueda, timeout(ESPERA_MS)).invalidarTodo();
+        verify(segundoNivel, timeout(ESPERA_MS)).evictAllRegions();
+    }
+
+    private void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(condicion.getAsBoolean()).isTrue();
+    }
+}
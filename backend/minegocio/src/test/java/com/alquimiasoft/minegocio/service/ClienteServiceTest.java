@@ -1,27 +1,51 @@
 package com.alquimiasoft.minegocio.service;
 
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.dto.PaginaCursorResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
+import com.alquimiasoft.minegocio.dto.cliente.IdentificacionCliente;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
 import com.alquimiasoft.minegocio.entity.Cliente;
 import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
 import com.alquimiasoft.minegocio.exception.BusinessException;
 import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.mapper.ClienteMapper;
 import com.alquimiasoft.minegocio.mapper.DireccionMapper;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.DireccionRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteConMatriz;
+import com.alquimiasoft.minegocio.repository.projection.ClienteEmpresa;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.ModoBusqueda;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,15 +60,35 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private DireccionRepository direccionRepository;
+
     @Mock
     private ClienteMapper clienteMapper;
 
     @Mock
     private DireccionMapper direccionMapper;
 
+    @Mock
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BaseDatosInfo baseDatos;
+
+    @Spy
+    private PlanificadorBusqueda planificador = new PlanificadorBusqueda(new SimpleMeterRegistry());
+
+    @Spy
+    private CacheBusquedaClientes cacheBusqueda =
+            new CacheBusquedaClientes(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private ClienteService clienteService;
 
+    private final Pageable pagina = PageRequest.of(0, ClienteService.TAMANO_PAGINA_BUSQUEDA);
     private Cliente cliente;
     private ClienteCreateRequest clienteCreateRequest;
     private ClienteUpdateRequest clienteUpdateRequest;
@@ -76,45 +120,270 @@ class ClienteServiceTest {
     }
 
     @Test
-    void buscarClientes_ConBusqueda_DeberiaRetornarClientesEncontrados() {
+    void buscarClientes_ConBusqueda_DeberiaRetornarClientesPorRelevancia() {
         // Given
         Long empresaId = 1L;
         String busqueda = "Juan";
-        List<Cliente> clientes = Arrays.asList(cliente);
         List<ClienteResponse> clientesResponse = Arrays.asList(clienteResponse);
 
-        when(clienteRepository.buscarClientesPorEmpresaYTexto(empresaId, busqueda))
-                .thenReturn(clientes);
-        when(clienteMapper.toResponseListWithMatriz(clientes))
-                .thenReturn(clientesResponse);
+        when(clienteRepository.buscarResponsesPorRelevancia(empresaId, "juan", "juan%", "%juan%", "juan", "juan%", "%juan%", pagina))
+                .thenReturn(new PageImpl<>(clientesResponse, pagina, 1));
 
         // When
-        List<ClienteResponse> result = clienteService.buscarClientes(empresaId, busqueda);
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, busqueda, pagina);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getNombres()).isEqualTo("Juan Perez");
-        verify(clienteRepository).buscarClientesPorEmpresaYTexto(empresaId, busqueda);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getNombres()).isEqualTo("Juan Perez");
+        // La proyección ya trae la respuesta armada: no pasa por el mapper de entidades
+        verifyNoInteractions(clienteMapper);
     }
 
     @Test
-    void buscarClientes_SinBusqueda_DeberiaRetornarTodosLosClientes() {
+    void buscarClientes_ConComodinesYTildes_DeberiaNormalizarPatron() {
         // Given
         Long empresaId = 1L;
-        List<Cliente> clientes = Arrays.asList(cliente);
-        List<ClienteResponse> clientesResponse = Arrays.asList(clienteResponse);
+        when(clienteRepository.buscarResponsesPorRelevancia(empresaId, "núñez, 100%_a", "núñez, 100\\%\\_a%",
+                "%núñez, 100\\%\\_a%", "nunez 100 a", "nunez 100 a%", "%nunez 100 a%", pagina))
+                .thenReturn(new PageImpl<>(List.of(), pagina, 0));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "  Núñez, 100%_A ", pagina);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        // En los nombres '%' y '_' son separadores; en la identificación se escapan
+        verify(clienteRepository).buscarResponsesPorRelevancia(empresaId, "núñez, 100%_a", "núñez, 100\\%\\_a%",
+                "%núñez, 100\\%\\_a%", "nunez 100 a", "nunez 100 a%", "%nunez 100 a%", pagina);
+    }
+
+    @Test
+    void buscarClientes_ConOrdenExplicito_DeberiaUsarConsultaSinRelevancia() {
+        // Given
+        Long empresaId = 1L;
+        Pageable ordenada = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "creadoEn"));
+
+        when(clienteRepository.buscarResponsesPorEmpresaYTexto(empresaId, "%juan%", "%juan%", ordenada))
+                .thenReturn(new PageImpl<>(List.of(clienteResponse), ordenada, 1));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "Juan", ordenada);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(clienteRepository, never()).buscarResponsesPorRelevancia(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarClientes_ConOrdenNoPermitido_DeberiaLanzarExcepcion() {
+        Pageable ordenada = PageRequest.of(0, 20, Sort.by("correo"));
+
+        assertThatThrownBy(() -> clienteService.buscarClientes(1L, "Juan", ordenada))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("correo");
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void buscarClientes_ConTamanoExcesivo_DeberiaLimitarPagina() {
+        // Given
+        Long empresaId = 1L;
+        Pageable limitada = PageRequest.of(0, ClienteService.TAMANO_MAXIMO_PAGINA);
+        when(clienteRepository.buscarResponsesPorRelevancia(empresaId, "juan", "juan%", "%juan%", "juan", "juan%", "%juan%", limitada))
+                .thenReturn(new PageImpl<>(List.of(), limitada, 0));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "Juan", PageRequest.of(0, 5000));
+
+        // Then
+        assertThat(result.getSize()).isEqualTo(ClienteService.TAMANO_MAXIMO_PAGINA);
+    }
+
+    @Test
+    void buscarClientes_ConIndiceEnMemoria_DeberiaCargarSoloLaPaginaPedida() {
+        // Given
+        Long empresaId = 1L;
+        Pageable segunda = PageRequest.of(1, 2);
+        when(indiceNgramas.isHabilitado()).thenReturn(true);
+        when(indiceNgramas.buscar(empresaId, "Juan")).thenReturn(new long[]{5L, 3L, 1L});
+        when(clienteRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(clienteResponse));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "Juan", segunda);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        verify(clienteRepository, never()).buscarResponsesPorRelevancia(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarClientes_ConCedulaCompleta_DeberiaUsarBusquedaExacta() {
+        // Given
+        Long empresaId = 1L;
+        when(clienteRepository.findResponseByIdentificacion(empresaId, "CEDULA", "1234567890"))
+                .thenReturn(Optional.of(clienteResponse));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, " 1234567890 ", pagina);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(clienteRepository, never()).buscarResponsesPorRelevancia(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(planificador).registrar(any(), eq(PlanificadorBusqueda.Estrategia.IDENTIFICACION_EXACTA), anyLong());
+    }
+
+    @Test
+    void buscarClientes_ConCedulaInexistente_DeberiaUsarBusquedaPorSubcadena() {
+        // Given
+        Long empresaId = 1L;
+        when(clienteRepository.findResponseByIdentificacion(empresaId, "CEDULA", "1234567890"))
+                .thenReturn(Optional.empty());
+        when(clienteRepository.buscarResponsesPorRelevancia(empresaId, "1234567890", "1234567890%",
+                "%1234567890%", "1234567890", "1234567890%", "%1234567890%", pagina))
+                .thenReturn(new PageImpl<>(List.of(clienteResponse), pagina, 1));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "1234567890", pagina);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(planificador).registrar(any(), eq(PlanificadorBusqueda.Estrategia.SUBCADENA), anyLong());
+    }
+
+    @Test
+    void buscarClientes_EnModoFulltext_DeberiaCargarEnOrdenDeRelevancia() {
+        // Given
+        Long empresaId = 1L;
+        ClienteResponse otro = new ClienteResponse(2L, 1L, "CEDULA", "0911111111",
+                "Zoila Vera", null, null, LocalDateTime.now());
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+        when(clienteRepository.buscarIdsPorTextoCompleto(empresaId, "cliente de Cuenca", pagina))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), pagina, 2));
+        when(clienteRepository.findResponsesByIdIn(List.of(2L, 1L))).thenReturn(List.of(clienteResponse, otro));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(
+                empresaId, "cliente de Cuenca", ModoBusqueda.FULLTEXT, pagina);
+
+        // Then
+        assertThat(result.getContent()).extracting(ClienteResponse::getId).containsExactly(2L, 1L);
+        verify(planificador).registrar(any(), eq(PlanificadorBusqueda.Estrategia.TEXTO_COMPLETO), anyLong());
+    }
+
+    @Test
+    void buscarClientes_EnModoFulltextSinPostgreSql_DeberiaUsarBusquedaPorSubcadena() {
+        // Given
+        Long empresaId = 1L;
+        when(baseDatos.isPostgreSql()).thenReturn(false);
+        when(clienteRepository.buscarResponsesPorRelevancia(empresaId, "juan", "juan%", "%juan%", "juan", "juan%", "%juan%", pagina))
+                .thenReturn(new PageImpl<>(List.of(clienteResponse), pagina, 1));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, "Juan", ModoBusqueda.FULLTEXT, pagina);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(clienteRepository, never()).buscarIdsPorTextoCompleto(any(), any(), any());
+    }
+
+    @Test
+    void buscarClientes_EnModoFonetico_DeberiaBuscarPorClaves() {
+        // Given
+        Long empresaId = 1L;
+        when(clienteRepository.buscarResponsesPorClavesFoneticas(
+                empresaId, Set.of("JIMENA", "GONSALES"), 2L, pagina))
+                .thenReturn(new PageImpl<>(List.of(clienteResponse), pagina, 1));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(
+                empresaId, "Jimena Gonzales", ModoBusqueda.FONETICO, pagina);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(planificador).registrar(any(), eq(PlanificadorBusqueda.Estrategia.FONETICA), anyLong());
+    }
+
+    @Test
+    void buscarClientes_EnModoFulltextConOrden_DeberiaLanzarExcepcion() {
+        Pageable ordenada = PageRequest.of(0, 20, Sort.by("nombres"));
+
+        assertThatThrownBy(() -> clienteService.buscarClientes(1L, "Cuenca", ModoBusqueda.FULLTEXT, ordenada))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("relevancia");
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void buscarClientes_SinBusqueda_DeberiaRetornarPrimeraPaginaDeClientes() {
+        // Given
+        Long empresaId = 1L;
+        Pageable listado = PageRequest.of(0, 20, Sort.by("nombres", "id"));
+
+        when(clienteRepository.findResponsesByEmpresaId(empresaId, listado))
+                .thenReturn(new PageImpl<>(List.of(clienteResponse), listado, 1));
+
+        // When
+        Page<ClienteResponse> result = clienteService.buscarClientes(empresaId, null, pagina);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verify(clienteRepository).findResponsesByEmpresaId(empresaId, listado);
+    }
 
-        when(clienteRepository.findByEmpresaIdWithDirecciones(empresaId))
-                .thenReturn(clientes);
-        when(clienteMapper.toResponseListWithMatriz(clientes))
-                .thenReturn(clientesResponse);
+    @Test
+    void obtenerClientesPorCursor_PrimeraPagina_DeberiaRetornarSiguienteCursor() {
+        // Given
+        Cliente otro = new Cliente(1L, "CEDULA", "0911111111", "Zoila Vera", null, null);
+        otro.setId(2L);
+        List<Cliente> clientes = List.of(cliente);
+        when(clienteRepository.buscarPrimerosPorNombres(1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new ClienteConMatriz(cliente, direccion), new ClienteConMatriz(otro, null)));
+        when(clienteMapper.toResponseListWithMatriz(eq(clientes), anyMap())).thenReturn(List.of(clienteResponse));
 
         // When
-        List<ClienteResponse> result = clienteService.buscarClientes(empresaId, null);
+        PaginaCursorResponse<ClienteResponse> pagina =
+                clienteService.obtenerClientesPorCursor(1L, null, 1, null, false);
 
         // Then
-        assertThat(result).hasSize(1);
-        verify(clienteRepository).findByEmpresaIdWithDirecciones(empresaId);
+        assertThat(pagina.getContenido()).hasSize(1);
+        assertThat(pagina.isHayMas()).isTrue();
+        assertThat(pagina.getTotal()).isNull();
+        verify(clienteRepository, never()).countByEmpresaId(anyLong());
+
+        CursorClientes cursor = CursorClientes.decodificar(pagina.getSiguienteCursor(), CursorClientes.Orden.NOMBRES);
+        assertThat(cursor.getNombres()).isEqualTo("Juan Perez");
+        assertThat(cursor.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void obtenerClientesPorCursor_ConCursor_DeberiaContinuarDesdeLaClave() {
+        // Given
+        String cursor = CursorClientes.despuesDe(cliente, CursorClientes.Orden.NOMBRES).codificar();
+        when(clienteRepository.buscarSiguientesPorNombres(1L, "Juan Perez", 1L, PageRequest.of(0, 21)))
+                .thenReturn(List.of());
+        when(clienteRepository.countByEmpresaId(1L)).thenReturn(1L);
+        when(clienteMapper.toResponseListWithMatriz(eq(List.of()), anyMap())).thenReturn(List.of());
+
+        // When
+        PaginaCursorResponse<ClienteResponse> pagina =
+                clienteService.obtenerClientesPorCursor(1L, cursor, 20, "nombres", true);
+
+        // Then
+        assertThat(pagina.getContenido()).isEmpty();
+        assertThat(pagina.getSiguienteCursor()).isNull();
+        assertThat(pagina.getTotal()).isEqualTo(1L);
+    }
+
+    @Test
+    void obtenerClientesPorCursor_ConCursorDeOtroOrden_DeberiaLanzarExcepcion() {
+        String cursor = CursorClientes.despuesDe(cliente, CursorClientes.Orden.CREADO_EN).codificar();
+
+        assertThatThrownBy(() -> clienteService.obtenerClientesPorCursor(1L, cursor, 20, "nombres", false))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> clienteService.obtenerClientesPorCursor(1L, "no-es-un-cursor", 20, null, false))
+                .isInstanceOf(BusinessException.class);
     }
 
     @Test
@@ -148,6 +417,41 @@ class ClienteServiceTest {
                 .hasMessageContaining("Ya existe un cliente");
     }
 
+    @Test
+    void crearCliente_EnPostgreSql_DeberiaInsertarConOnConflictSinConsultaPrevia() {
+        // Given
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+        when(clienteMapper.toEntity(clienteCreateRequest)).thenReturn(cliente);
+        when(direccionMapper.toEntity(direccionRequest, true)).thenReturn(direccion);
+        when(clienteRepository.insertarSiNoExiste(cliente)).thenReturn(true);
+        when(clienteMapper.toResponse(cliente)).thenReturn(clienteResponse);
+
+        // When
+        ClienteResponse result = clienteService.crearCliente(clienteCreateRequest);
+
+        // Then
+        assertThat(result).isSameAs(clienteResponse);
+        verify(clienteRepository, never()).existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion(
+                anyLong(), anyString(), anyString());
+        verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(eventPublisher).publishEvent(any(ClienteModificadoEvent.class));
+    }
+
+    @Test
+    void crearCliente_EnPostgreSqlConConflicto_DeberiaLanzarBusinessException() {
+        // Given
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+        when(clienteMapper.toEntity(clienteCreateRequest)).thenReturn(cliente);
+        when(direccionMapper.toEntity(direccionRequest, true)).thenReturn(direccion);
+        when(clienteRepository.insertarSiNoExiste(cliente)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> clienteService.crearCliente(clienteCreateRequest))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Ya existe un cliente");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void crearCliente_ConTipoIdentificacionInvalido_DeberiaLanzarBusinessException() {
         // Given
@@ -159,6 +463,26 @@ class ClienteServiceTest {
                 .hasMessageContaining("Tipo de identificación no válido");
     }
 
+    @Test
+    void buscarIdentificacionesExistentes_DeberiaConsultarUnaVezYConservarOrden() {
+        // Given
+        IdentificacionCliente primera = new IdentificacionCliente("CEDULA", "1111111111");
+        IdentificacionCliente segunda = new IdentificacionCliente("RUC", "2222222222001");
+        IdentificacionCliente nueva = new IdentificacionCliente("CEDULA", "3333333333");
+        List<IdentificacionCliente> identificaciones = List.of(segunda, nueva, primera, segunda);
+        when(clienteRepository.buscarIdentificacionesExistentes(1L, identificaciones))
+                .thenReturn(Set.of(primera, segunda));
+
+        // When
+        List<IdentificacionCliente> result = clienteService.buscarIdentificacionesExistentes(1L, identificaciones);
+
+        // Then
+        assertThat(result).containsExactly(segunda, primera);
+        verify(clienteRepository).buscarIdentificacionesExistentes(1L, identificaciones);
+        verify(clienteRepository, never()).existsByEmpresaIdAndTipoIdentificacionAndNumeroIdentificacion(
+                anyLong(), anyString(), anyString());
+    }
+
     @Test
     void actualizarCliente_ConIdExistente_DeberiaActualizarCliente() {
         // Given
@@ -194,20 +518,22 @@ class ClienteServiceTest {
     void eliminarCliente_ConIdExistente_DeberiaEliminarCliente() {
         // Given
         Long id = 1L;
-        when(clienteRepository.findById(id)).thenReturn(Optional.of(cliente));
+        ClienteEmpresa encontrado = clienteEmpresa(id, 1L);
+        when(clienteRepository.findByIdIn(List.of(id))).thenReturn(List.of(encontrado));
 
         // When
         clienteService.eliminarCliente(id);
 
         // Then
-        verify(clienteRepository).delete(cliente);
+        verify(clienteRepository).eliminarPorIds(List.of(id));
+        verify(eventPublisher).publishEvent(any(ClienteModificadoEvent.class));
     }
 
     @Test
     void eliminarCliente_ConIdInexistente_DeberiaLanzarResourceNotFoundException() {
         // Given
         Long id = 999L;
-        when(clienteRepository.findById(id)).thenReturn(Optional.empty());
+        when(clienteRepository.findByIdIn(List.of(id))).thenReturn(List.of());
 
         // When & Then
         assertThatThrownBy(() -> clienteService.eliminarCliente(id))
@@ -215,11 +541,49 @@ class ClienteServiceTest {
                 .hasMessageContaining("Cliente no encontrado");
     }
 
+    @Test
+    void eliminarClientes_DeberiaEliminarConUnSoloDeleteYNotificarCadaEmpresa() {
+        // Given
+        List<ClienteEmpresa> encontrados =
+                List.of(clienteEmpresa(1L, 1L), clienteEmpresa(2L, 3L), clienteEmpresa(3L, 1L));
+        when(clienteRepository.findByIdIn(Set.of(1L, 2L, 3L))).thenReturn(encontrados);
+        when(clienteRepository.eliminarPorIds(Set.of(1L, 2L, 3L))).thenReturn(3);
+
+        // When
+        int eliminados = clienteService.eliminarClientes(List.of(1L, 2L, 1L, 3L));
+
+        // Then
+        assertThat(eliminados).isEqualTo(3);
+        verify(clienteRepository).eliminarPorIds(Set.of(1L, 2L, 3L));
+        verify(clienteRepository, never()).delete(any(Cliente.class));
+        ArgumentCaptor<ClientesModificadosEvent> eventos = ArgumentCaptor.forClass(ClientesModificadosEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventos.capture());
+        assertThat(eventos.getAllValues()).extracting(ClientesModificadosEvent::getEmpresaId)
+                .containsExactly(1L, 3L);
+        assertThat(eventos.getAllValues().get(0).getCambios())
+                .extracting(ClienteModificadoEvent::getClienteId)
+                .containsExactly(1L, 3L);
+    }
+
+    @Test
+    void eliminarClientes_ConUnIdInexistente_NoDeberiaEliminarNinguno() {
+        // Given
+        List<ClienteEmpresa> encontrados = List.of(clienteEmpresa(1L, 1L));
+        when(clienteRepository.findByIdIn(Set.of(1L, 999L))).thenReturn(encontrados);
+
+        // When & Then
+        assertThatThrownBy(() -> clienteService.eliminarClientes(List.of(1L, 999L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("999");
+        verify(clienteRepository, never()).eliminarPorIds(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void obtenerClientePorId_ConIdExistente_DeberiaRetornarCliente() {
         // Given
         Long id = 1L;
-        when(clienteRepository.findByIdWithDirecciones(id)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.findById(id)).thenReturn(Optional.of(cliente));
         when(clienteMapper.toResponse(cliente)).thenReturn(clienteResponse);
 
         // When
@@ -234,7 +598,7 @@ class ClienteServiceTest {
     void obtenerClientePorId_ConIdInexistente_DeberiaLanzarResourceNotFoundException() {
         // Given
         Long id = 999L;
-        when(clienteRepository.findByIdWithDirecciones(id)).thenReturn(Optional.empty());
+        when(clienteRepository.findById(id)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> clienteService.obtenerClientePorId(id))
@@ -281,4 +645,11 @@ class ClienteServiceTest {
         // Then
         assertThat(result).isEqualTo(expectedCount);
     }
-}
\ No newline at end of file
+
+    private static ClienteEmpresa clienteEmpresa(Long id, Long empresaId) {
+        ClienteEmpresa clienteEmpresa = mock(ClienteEmpresa.class);
+        lenient().when(clienteEmpresa.getId()).thenReturn(id);
+        lenient().when(clienteEmpresa.getEmpresaId()).thenReturn(empresaId);
+        return clienteEmpresa;
+    }
+}
@@ -1,9 +1,12 @@
 package com.alquimiasoft.minegocio.service;
 
 import com.alquimiasoft.minegocio.dto.direccion.DireccionCreateRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionLoteRequest;
+import com.alquimiasoft.minegocio.dto.direccion.DireccionRequest;
 import com.alquimiasoft.minegocio.dto.direccion.DireccionResponse;
 import com.alquimiasoft.minegocio.entity.Cliente;
 import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.exception.BusinessException;
 import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.mapper.DireccionMapper;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
@@ -11,14 +14,17 @@ import com.alquimiasoft.minegocio.repository.DireccionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +45,9 @@ class DireccionServiceTest {
     @Mock
     private DireccionMapper direccionMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private DireccionService direccionService;
 
@@ -98,24 +107,94 @@ class DireccionServiceTest {
                 .hasMessageContaining("Cliente no encontrado");
     }
 
+    @Test
+    void crearDireccionesEnLote_ConNuevaMatriz_DeberiaQuitarLaMatrizAntesDeInsertar() {
+        // Given
+        DireccionRequest sucursal = new DireccionRequest("Azuay", "Cuenca", "Sucursal 1");
+        DireccionRequest matriz = new DireccionRequest("Azuay", "Cuenca", "Nueva Matriz");
+        DireccionLoteRequest request = new DireccionLoteRequest(List.of(sucursal, matriz), 1);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(direccionMapper.toEntity(sucursal, false)).thenReturn(new Direccion("Azuay", "Cuenca", "Sucursal 1", false));
+        when(direccionMapper.toEntity(matriz, true)).thenReturn(new Direccion("Azuay", "Cuenca", "Nueva Matriz", true));
+        when(direccionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(direccionMapper.toResponseList(anyList())).thenReturn(List.of(direccionResponse, direccionResponse));
+
+        // When
+        List<DireccionResponse> result = direccionService.crearDireccionesEnLote(1L, request);
+
+        // Then
+        assertThat(result).hasSize(2);
+        InOrder orden = inOrder(direccionRepository);
+        orden.verify(direccionRepository).quitarMatriz(1L);
+        orden.verify(direccionRepository).saveAll(argThat((List<Direccion> nuevas) -> nuevas.size() == 2
+                && nuevas.stream().allMatch(d -> d.getCliente() == cliente)
+                && !nuevas.get(0).isEsMatriz() && nuevas.get(1).isEsMatriz()));
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void crearDireccionesEnLote_ConPosicionDeMatrizFueraDelLote_DeberiaLanzarBusinessException() {
+        // Given
+        DireccionLoteRequest request = new DireccionLoteRequest(
+                List.of(new DireccionRequest("Azuay", "Cuenca", "Sucursal 1")), 1);
+
+        // When & Then
+        assertThatThrownBy(() -> direccionService.crearDireccionesEnLote(1L, request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("nueva matriz");
+        verifyNoInteractions(direccionRepository);
+    }
+
+    @Test
+    void eliminarDireccionesEnLote_ConMatrizEnLaLista_NoDeberiaEliminarNinguna() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(direccionRepository.findIdsAdicionalesByClienteIdAndIdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(2L));
+        when(direccionRepository.findByClienteIdAndEsMatrizTrue(1L)).thenReturn(Optional.of(direccionMatriz));
+
+        // When & Then
+        assertThatThrownBy(() -> direccionService.eliminarDireccionesEnLote(1L, List.of(1L, 2L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("matriz");
+        verify(direccionRepository, never()).eliminarPorClienteIdAndIdIn(anyLong(), anyCollection());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void eliminarDireccionesEnLote_ConAdicionalesDelCliente_DeberiaEliminarConUnaSentencia() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(direccionRepository.findIdsAdicionalesByClienteIdAndIdIn(eq(1L), anyCollection()))
+                .thenReturn(List.of(2L, 3L));
+        when(direccionRepository.eliminarPorClienteIdAndIdIn(eq(1L), anyCollection())).thenReturn(2);
+
+        // When
+        int eliminadas = direccionService.eliminarDireccionesEnLote(1L, List.of(2L, 3L, 2L));
+
+        // Then
+        assertThat(eliminadas).isEqualTo(2);
+        verify(direccionRepository).eliminarPorClienteIdAndIdIn(1L, Set.of(2L, 3L));
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
     @Test
     void obtenerDireccionesPorCliente_ConClienteExistente_DeberiaRetornarDirecciones() {
         // Given
         Long clienteId = 1L;
-        List<Direccion> direcciones = Arrays.asList(direccionMatriz, direccionAdicional);
         List<DireccionResponse> direccionesResponse = Arrays.asList(direccionResponse);
 
         when(clienteRepository.existsById(clienteId)).thenReturn(true);
-        when(direccionRepository.findByClienteIdOrderByEsMatrizDescCreadoEnAsc(clienteId))
-                .thenReturn(direcciones);
-        when(direccionMapper.toResponseList(direcciones)).thenReturn(direccionesResponse);
+        when(direccionRepository.findResponsesByClienteId(clienteId))
+                .thenReturn(direccionesResponse);
 
         // When
         List<DireccionResponse> result = direccionService.obtenerDireccionesPorCliente(clienteId);
 
         // Then
         assertThat(result).isNotEmpty();
-        verify(direccionRepository).findByClienteIdOrderByEsMatrizDescCreadoEnAsc(clienteId);
+        verify(direccionRepository).findResponsesByClienteId(clienteId);
+        verifyNoInteractions(direccionMapper);
     }
 
     @Test
@@ -158,9 +237,8 @@ class DireccionServiceTest {
                 "Av. Principal 123", true, LocalDateTime.now());
 
         when(clienteRepository.existsById(clienteId)).thenReturn(true);
-        when(direccionRepository.findByClienteIdAndEsMatrizTrue(clienteId))
-                .thenReturn(Optional.of(direccionMatriz));
-        when(direccionMapper.toResponse(direccionMatriz)).thenReturn(direccionMatrizResponse);
+        when(direccionRepository.findMatrizResponseByClienteId(clienteId))
+                .thenReturn(Optional.of(direccionMatrizResponse));
 
         // When
         DireccionResponse result = direccionService.obtenerDireccionMatriz(clienteId);
@@ -175,7 +253,7 @@ class DireccionServiceTest {
         // Given
         Long clienteId = 1L;
         when(clienteRepository.existsById(clienteId)).thenReturn(true);
-        when(direccionRepository.findByClienteIdAndEsMatrizTrue(clienteId))
+        when(direccionRepository.findMatrizResponseByClienteId(clienteId))
                 .thenReturn(Optional.empty());
 
         // When & Then
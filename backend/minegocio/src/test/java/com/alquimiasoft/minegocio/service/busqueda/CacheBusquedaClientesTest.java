@@ -0,0 +1,103 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitarios para la caché de resultados de búsqueda
+ */
+class CacheBusquedaClientesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CacheBusquedaClientes cache = new CacheBusquedaClientes(registry, true, 100, Duration.ofMinutes(5));
+    private final Pageable pagina = PageRequest.of(0, 20);
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    @Test
+    void obtener_ConMismoCriterio_DeberiaConsultarUnaSolaVez() {
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "Núñez", pagina, this::buscar);
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "Núñez", pagina, this::buscar);
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "Núñez", PageRequest.of(1, 20), this::buscar);
+
+        assertThat(consultas).hasValue(2);
+        assertThat(registry.get("cache.gets").tags("cache", CacheBusquedaClientes.NOMBRE, "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void obtener_ConCriteriosQueSoloCoincidenNormalizados_DeberiaConsultarCadaUno() {
+        // "0102-3" y "0102 3" dan los mismos nombres normalizados pero otra identificación
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "0102-3", pagina, this::buscar);
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "0102 3", pagina, this::buscar);
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    @Test
+    void onClienteModificado_DeberiaInvalidarSoloLaEmpresaAfectada() {
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+        cache.obtener(2L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+
+        cache.onClienteModificado(ClienteModificadoEvent.eliminado(1L, 10L));
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+        cache.obtener(2L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+
+        assertThat(consultas).hasValue(3);
+    }
+
+    @Test
+    void obtener_ConCambioDuranteLaConsulta_NoDeberiaGuardarResultadoViejo() {
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, () -> {
+            // Un cliente cambia mientras la consulta está en curso
+            cache.invalidar(1L);
+            return buscar();
+        });
+        cache.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    @Test
+    void obtener_ConPesoExcedido_DeberiaExpulsarEntradas() {
+        for (int i = 0; i < 20; i++) {
+            cache.obtener(1L, ModoBusqueda.SIMPLE, "cliente " + i, pagina, this::buscarPaginaLlena);
+        }
+
+        // Cada página pesa 21: en 100 unidades caben como máximo 4
+        assertThat(cache.tamano()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void obtener_Deshabilitada_DeberiaConsultarSiempre() {
+        CacheBusquedaClientes deshabilitada =
+                new CacheBusquedaClientes(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(5));
+
+        deshabilitada.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+        deshabilitada.obtener(1L, ModoBusqueda.SIMPLE, "juan", pagina, this::buscar);
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    private Page<ClienteResponse> buscar() {
+        consultas.incrementAndGet();
+        return new PageImpl<>(List.of(new ClienteResponse()), pagina, 1);
+    }
+
+    private Page<ClienteResponse> buscarPaginaLlena() {
+        List<ClienteResponse> clientes = Collections.nCopies(20, new ClienteResponse());
+        return new PageImpl<>(clientes, pagina, 100);
+    }
+}
@@ -0,0 +1,175 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteResumen;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el índice de n-gramas en memoria
+ */
+@ExtendWith(MockitoExtension.class)
+class IndiceNgramasClientesTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private IndiceNgramasClientes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceNgramasClientes(clienteRepository, new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(5));
+        lenient().when(clienteRepository.findResumenByEmpresaId(1L)).thenReturn(List.of(
+                resumen(1L, "Juan Perez", "0102030405"),
+                resumen(2L, "Maria Juana Lopez", "0911111111"),
+                resumen(3L, "Pedro Andrade", "1790012345001")));
+    }
+
+    @Test
+    void buscar_PorSubcadenaDelNombre_DeberiaRetornarCoincidencias() {
+        assertThat(indice.buscar(1L, "JUAN")).containsExactly(1L, 2L);
+        assertThat(indice.buscar(1L, "andr")).containsExactly(3L);
+        assertThat(indice.buscar(1L, "xyz")).isEmpty();
+    }
+
+    @Test
+    void buscar_DeberiaOrdenarPorRelevancia() {
+        indice.buscar(1L, "juan");
+        indice.onClienteModificado(ClienteModificadoEvent.creado(1L, 5L, "Juana", "0955555555"));
+
+        // Exacta, prefijo y subcadena, sin importar el orden de los IDs
+        assertThat(indice.buscar(1L, "juana")).containsExactly(5L, 2L);
+        assertThat(indice.buscar(1L, "ju")).containsExactly(1L, 5L, 2L);
+    }
+
+    @Test
+    void buscar_PorIdentificacion_DeberiaRetornarCoincidencias() {
+        assertThat(indice.buscar(1L, "1790012")).containsExactly(3L);
+    }
+
+    @Test
+    void buscar_PorIdentificacionConGuion_DeberiaCompararComoLaBusquedaSql() {
+        when(clienteRepository.findResumenByEmpresaId(2L)).thenReturn(List.of(
+                resumen(4L, "Rosa Mora", "0912-345678"),
+                resumen(5L, "Luis Vera", "0912345678")));
+
+        // La identificación conserva la puntuación: "0912-345" no es "0912 345" ni "0912345"
+        assertThat(indice.buscar(2L, "0912-345")).containsExactly(4L);
+        assertThat(indice.buscar(2L, "0912345")).containsExactly(5L);
+    }
+
+    @Test
+    void buscar_ConTrigramasDeCamposDistintos_NoDeberiaDarFalsosPositivos() {
+        // "ez0" solo existiría si se concatenaran nombre e identificación
+        assertThat(indice.buscar(1L, "ez0")).isEmpty();
+    }
+
+    @Test
+    void buscar_ConTextoCorto_DeberiaRecorrerDocumentos() {
+        assertThat(indice.buscar(1L, "ro")).containsExactly(3L);
+    }
+
+    @Test
+    void buscar_DeberiaConstruirElIndiceUnaSolaVez() {
+        indice.buscar(1L, "juan");
+        indice.buscar(1L, "pedro");
+
+        verify(clienteRepository, times(1)).findResumenByEmpresaId(1L);
+    }
+
+    @Test
+    void onClienteModificado_DeberiaActualizarIndiceIncrementalmente() {
+        indice.buscar(1L, "juan");
+
+        indice.onClienteModificado(ClienteModificadoEvent.creado(1L, 4L, "Juan Carlos Vera", "0922222222"));
+        indice.onClienteModificado(ClienteModificadoEvent.actualizado(1L, 1L, "Jose Perez", "0102030405"));
+        indice.onClienteModificado(ClienteModificadoEvent.eliminado(1L, 2L));
+
+        assertThat(indice.buscar(1L, "juan")).containsExactly(4L);
+        assertThat(indice.buscar(1L, "jose")).containsExactly(1L);
+        verify(clienteRepository, times(1)).findResumenByEmpresaId(1L);
+    }
+
+    @Test
+    void onClientesModificados_DeberiaAplicarTodoElLote() {
+        indice.buscar(1L, "juan");
+
+        indice.onClientesModificados(new ClientesModificadosEvent(1L, List.of(
+                ClienteModificadoEvent.creado(1L, 4L, "Juan Carlos Vera", "0922222222"),
+                ClienteModificadoEvent.creado(1L, 5L, "Juanita Mora", "0933333333"),
+                ClienteModificadoEvent.eliminado(1L, 2L))));
+
+        assertThat(indice.buscar(1L, "juan")).containsExactlyInAnyOrder(1L, 4L, 5L);
+        verify(clienteRepository, times(1)).findResumenByEmpresaId(1L);
+    }
+
+    @Test
+    void onClienteModificado_ConIndiceNoConstruido_NoDeberiaConsultarBaseDeDatos() {
+        indice.onClienteModificado(ClienteModificadoEvent.creado(2L, 9L, "Ana", "0933333333"));
+
+        verify(clienteRepository, never()).findResumenByEmpresaId(2L);
+    }
+
+    @Test
+    void buscar_ConPesoMaximoExcedido_DeberiaDescartarIndicesDeOtrasEmpresas() {
+        // Cada empresa de prueba ocupa 1 + 3 clientes: el límite de 5 admite solo una
+        IndiceNgramasClientes acotado = new IndiceNgramasClientes(
+                clienteRepository, new SimpleMeterRegistry(), true, 5, Duration.ofMinutes(5));
+        when(clienteRepository.findResumenByEmpresaId(2L)).thenReturn(List.of(
+                resumen(4L, "Rosa Mora", "0104444444"),
+                resumen(5L, "Luis Vera", "0105555555"),
+                resumen(6L, "Ana Sol", "0106666666")));
+
+        assertThat(acotado.buscar(1L, "juan")).hasSize(2);
+        assertThat(acotado.buscar(2L, "rosa")).containsExactly(4L);
+
+        assertThat(acotado.tamano()).isEqualTo(1);
+    }
+
+    @Test
+    void onClienteModificado_Deshabilitado_NoDeberiaConstruirNiIndexar() {
+        IndiceNgramasClientes deshabilitado = new IndiceNgramasClientes(
+                clienteRepository, new SimpleMeterRegistry(), false, 1000, Duration.ofMinutes(5));
+
+        deshabilitado.onClienteModificado(ClienteModificadoEvent.actualizado(1L, 1L, "Jorge Perez", "0102030405"));
+
+        assertThat(deshabilitado.isHabilitado()).isFalse();
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void intersectar_DeberiaRetornarIdsComunes() {
+        ListaIds a = new ListaIds();
+        ListaIds b = new ListaIds();
+        for (long id : new long[]{9, 1, 5, 7, 3}) {
+            a.agregar(id);
+        }
+        for (long id : new long[]{7, 2, 3, 8}) {
+            b.agregar(id);
+        }
+        b.remover(8);
+
+        assertThat(a.aArreglo()).containsExactly(1, 3, 5, 7, 9);
+        assertThat(ListaIds.intersectar(a, b)).containsExactly(3, 7);
+    }
+
+    private static ClienteResumen resumen(Long id, String nombres, String numeroIdentificacion) {
+        return new ClienteResumen() {
+            public Long getId() { return id; }
+            public String getNombres() { return nombres; }
+            public String getNumeroIdentificacion() { return numeroIdentificacion; }
+        };
+    }
+}
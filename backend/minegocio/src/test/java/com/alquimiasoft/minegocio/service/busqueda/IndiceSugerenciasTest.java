@@ -0,0 +1,144 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.dto.cliente.SugerenciaResponse;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteResumen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el índice de sugerencias por prefijo
+ */
+@ExtendWith(MockitoExtension.class)
+class IndiceSugerenciasTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    private IndiceSugerencias indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceSugerencias(clienteRepository, new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(5));
+        lenient().when(clienteRepository.findResumenByEmpresaId(1L)).thenReturn(List.of(
+                resumen(1L, "Juan Perez", "0102030405"),
+                resumen(2L, "Juana Perales", "0911111111"),
+                resumen(3L, "Pedro Andrade", "0102999999")));
+    }
+
+    @Test
+    void sugerir_PorInicioDeNombre_DeberiaRetornarEnOrdenAlfabetico() {
+        List<SugerenciaResponse> sugerencias = indice.sugerir(1L, "JUAN", 10);
+
+        assertThat(sugerencias).extracting(SugerenciaResponse::getId).containsExactly(1L, 2L);
+        assertThat(sugerencias.get(0).getTexto()).isEqualTo("Juan Perez");
+        assertThat(sugerencias.get(0).getTipo()).isEqualTo(SugerenciaResponse.TIPO_NOMBRE);
+    }
+
+    @Test
+    void sugerir_PorInicioDeOtraPalabra_DeberiaEncontrarCliente() {
+        assertThat(indice.sugerir(1L, "per", 10))
+                .extracting(SugerenciaResponse::getId)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void sugerir_PorIdentificacion_DeberiaRetornarNumero() {
+        List<SugerenciaResponse> sugerencias = indice.sugerir(1L, "0102", 10);
+
+        assertThat(sugerencias).extracting(SugerenciaResponse::getTexto)
+                .containsExactly("0102030405", "0102999999");
+        assertThat(sugerencias).allMatch(s -> SugerenciaResponse.TIPO_IDENTIFICACION.equals(s.getTipo()));
+    }
+
+    @Test
+    void sugerir_PorIdentificacionConGuion_DeberiaCompararComoLaConsultaSql() {
+        when(clienteRepository.findResumenByEmpresaId(2L)).thenReturn(List.of(
+                resumen(4L, "Rosa Mora", "0912-345678"),
+                resumen(5L, "Luis Vera", "0912345678")));
+
+        assertThat(indice.sugerir(2L, "0912-3", 10)).extracting(SugerenciaResponse::getId).containsExactly(4L);
+        assertThat(indice.sugerir(2L, "09123", 10)).extracting(SugerenciaResponse::getId).containsExactly(5L);
+    }
+
+    @Test
+    void sugerir_DeberiaListarNombresAntesQueIdentificaciones() {
+        when(clienteRepository.findResumenByEmpresaId(2L)).thenReturn(List.of(
+                resumen(4L, "Comercial 0100", "0100000001"),
+                resumen(5L, "Zoila Mora", "0100000002")));
+
+        assertThat(indice.sugerir(2L, "0100", 10))
+                .extracting(SugerenciaResponse::getTipo)
+                .containsExactly(SugerenciaResponse.TIPO_NOMBRE, SugerenciaResponse.TIPO_IDENTIFICACION,
+                        SugerenciaResponse.TIPO_IDENTIFICACION);
+    }
+
+    @Test
+    void sugerir_DeberiaRespetarElLimite() {
+        assertThat(indice.sugerir(1L, "p", 1)).hasSize(1);
+    }
+
+    @Test
+    void sugerir_ConPrefijoVacio_NoDeberiaConsultarBaseDeDatos() {
+        assertThat(indice.sugerir(1L, "  ", 10)).isEmpty();
+        verify(clienteRepository, never()).findResumenByEmpresaId(anyLong());
+    }
+
+    @Test
+    void onClienteModificado_DeberiaActualizarSugerencias() {
+        indice.sugerir(1L, "j", 10);
+
+        indice.onClienteModificado(ClienteModificadoEvent.actualizado(1L, 1L, "Jorge Perez", "0102030405"));
+        indice.onClienteModificado(ClienteModificadoEvent.eliminado(1L, 2L));
+
+        assertThat(indice.sugerir(1L, "juan", 10)).isEmpty();
+        assertThat(indice.sugerir(1L, "jor", 10)).extracting(SugerenciaResponse::getId).containsExactly(1L);
+        verify(clienteRepository, times(1)).findResumenByEmpresaId(1L);
+    }
+
+    @Test
+    void sugerir_ConPesoMaximoExcedido_DeberiaDescartarIndicesDeOtrasEmpresas() {
+        // Cada empresa de prueba ocupa 1 + 9 claves: el límite de 12 admite solo una
+        IndiceSugerencias acotado = new IndiceSugerencias(
+                clienteRepository, new SimpleMeterRegistry(), true, 12, Duration.ofMinutes(5));
+        when(clienteRepository.findResumenByEmpresaId(2L)).thenReturn(List.of(
+                resumen(4L, "Rosa Mora", "0104444444"),
+                resumen(5L, "Luis Vera", "0105555555"),
+                resumen(6L, "Ana Sol", "0106666666")));
+
+        assertThat(acotado.sugerir(1L, "juan", 10)).hasSize(2);
+        assertThat(acotado.sugerir(2L, "rosa", 10)).hasSize(1);
+
+        assertThat(acotado.tamano()).isEqualTo(1);
+    }
+
+    @Test
+    void onClienteModificado_Deshabilitado_NoDeberiaConstruirNiIndexar() {
+        IndiceSugerencias deshabilitado = new IndiceSugerencias(
+                clienteRepository, new SimpleMeterRegistry(), false, 1000, Duration.ofMinutes(5));
+
+        deshabilitado.onClienteModificado(ClienteModificadoEvent.actualizado(1L, 1L, "Jorge Perez", "0102030405"));
+
+        assertThat(deshabilitado.isHabilitado()).isFalse();
+        verifyNoInteractions(clienteRepository);
+    }
+
+    private static ClienteResumen resumen(Long id, String nombres, String numeroIdentificacion) {
+        return new ClienteResumen() {
+            public Long getId() { return id; }
+            public String getNombres() { return nombres; }
+            public String getNumeroIdentificacion() { return numeroIdentificacion; }
+        };
+    }
+}
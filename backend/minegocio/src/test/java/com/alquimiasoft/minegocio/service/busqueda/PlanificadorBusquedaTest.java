@@ -0,0 +1,78 @@
+package com.alquimiasoft.minegocio.service.busqueda;
+
+import com.alquimiasoft.minegocio.entity.TipoIdentificacion;
+import com.alquimiasoft.minegocio.exception.BusinessException;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda.Estrategia;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda.PlanBusqueda;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitarios para el planificador de búsquedas de clientes
+ */
+class PlanificadorBusquedaTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PlanificadorBusqueda planificador = new PlanificadorBusqueda(registry);
+
+    @Test
+    void planificar_ConIdentificacionCompleta_DeberiaElegirBusquedaExacta() {
+        PlanBusqueda cedula = planificador.planificar(" 0102030405 ", false);
+        assertThat(cedula.getEstrategia()).isEqualTo(Estrategia.IDENTIFICACION_EXACTA);
+        assertThat(cedula.getTipoIdentificacion()).isEqualTo(TipoIdentificacion.CEDULA);
+        assertThat(cedula.getTexto()).isEqualTo("0102030405");
+        assertThat(cedula.getRespaldo()).isEqualTo(Estrategia.SUBCADENA);
+
+        assertThat(planificador.planificar("1790012345001", true).getTipoIdentificacion())
+                .isEqualTo(TipoIdentificacion.RUC);
+        assertThat(planificador.planificar("AB123456", false).getTipoIdentificacion())
+                .isEqualTo(TipoIdentificacion.PASAPORTE);
+    }
+
+    @Test
+    void planificar_ConTextoParcial_DeberiaElegirBusquedaPorTexto() {
+        assertThat(planificador.planificar("010203", false).getEstrategia()).isEqualTo(Estrategia.SUBCADENA);
+        assertThat(planificador.planificar("Juan Perez", true).getEstrategia()).isEqualTo(Estrategia.INDICE_MEMORIA);
+        assertThat(planificador.planificar("Mariana", false).getEstrategia()).isEqualTo(Estrategia.SUBCADENA);
+        assertThat(planificador.planificar("  ", false).getEstrategia()).isEqualTo(Estrategia.LISTADO);
+        assertThat(planificador.planificar(null, false).getEstrategia()).isEqualTo(Estrategia.LISTADO);
+    }
+
+    @Test
+    void planificar_EnModoFulltext_DeberiaUsarTextoCompletoSiEstaDisponible() {
+        assertThat(planificador.planificar("cliente de Cuenca", ModoBusqueda.FULLTEXT, true, true).getEstrategia())
+                .isEqualTo(Estrategia.TEXTO_COMPLETO);
+        assertThat(planificador.planificar("0102030405", ModoBusqueda.FULLTEXT, false, true).getRespaldo())
+                .isEqualTo(Estrategia.TEXTO_COMPLETO);
+        // Sin soporte en la base de datos se comporta como SIMPLE
+        assertThat(planificador.planificar("cliente de Cuenca", ModoBusqueda.FULLTEXT, false, false).getEstrategia())
+                .isEqualTo(Estrategia.SUBCADENA);
+    }
+
+    @Test
+    void modoBusqueda_DeberiaAceptarSoloValoresConocidos() {
+        assertThat(ModoBusqueda.desde(null)).isEqualTo(ModoBusqueda.SIMPLE);
+        assertThat(ModoBusqueda.desde("FullText")).isEqualTo(ModoBusqueda.FULLTEXT);
+        assertThatThrownBy(() -> ModoBusqueda.desde("soundex"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("soundex");
+    }
+
+    @Test
+    void registrar_DeberiaEtiquetarEstrategiaYRespaldo() {
+        PlanBusqueda plan = planificador.planificar("0102030405", false);
+
+        planificador.registrar(plan, Estrategia.IDENTIFICACION_EXACTA, 1_000);
+        planificador.registrar(plan, Estrategia.SUBCADENA, 1_000);
+
+        Timer exacta = registry.get(PlanificadorBusqueda.METRICA)
+                .tags("estrategia", "IDENTIFICACION_EXACTA", "respaldo", "false").timer();
+        Timer respaldo = registry.get(PlanificadorBusqueda.METRICA)
+                .tags("estrategia", "SUBCADENA", "respaldo", "true").timer();
+        assertThat(exacta.count()).isEqualTo(1);
+        assertThat(respaldo.count()).isEqualTo(1);
+    }
+}
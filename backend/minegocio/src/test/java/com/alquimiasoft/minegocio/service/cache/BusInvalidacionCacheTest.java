@@ -0,0 +1,220 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
+import com.alquimiasoft.minegocio.entity.Cliente;
+import com.alquimiasoft.minegocio.entity.Direccion;
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import com.alquimiasoft.minegocio.event.ClientesModificadosEvent;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceSugerencias;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el bus de invalidación de cachés entre nodos
+ */
+@ExtendWith(MockitoExtension.class)
+class BusInvalidacionCacheTest {
+
+    @Mock
+    private CacheBusquedaClientes cacheBusqueda;
+
+    @Mock
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Mock
+    private IndiceSugerencias indiceSugerencias;
+
+    @Mock
+    private CoalescedorLecturas coalescedor;
+
+    @Mock
+    private CacheDetalleClientes cacheDetalle;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private CacheImplementor segundoNivel;
+
+    @Mock
+    private TimestampsCache marcasConsultas;
+
+    @Mock
+    private SessionImplementor sesion;
+
+    @Mock
+    private BaseDatosInfo baseDatos;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BusInvalidacionCache bus;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bus, "habilitado", true);
+        bus.registrarMetricas();
+    }
+
+    @Test
+    void procesar_DeOtroNodo_DeberiaInvalidarSoloLoAfectado() {
+        prepararSegundoNivel();
+
+        bus.procesar("otro-nodo:7:42,43:5,6");
+
+        verify(cacheBusqueda).invalidar(7L);
+        verify(indiceNgramas).invalidar(7L);
+        verify(indiceSugerencias).invalidar(7L);
+        verify(coalescedor).soltarEnCurso();
+        verify(cacheDetalle).invalidar(42L);
+        verify(cacheDetalle).invalidar(43L);
+        verify(segundoNivel).evictEntityData(Cliente.class, 42L);
+        verify(segundoNivel).evictCollectionData(Cliente.class.getName() + ".direcciones", 43L);
+        verify(segundoNivel).evictEntityData(Direccion.class, 5L);
+        verify(segundoNivel).evictEntityData(Direccion.class, 6L);
+        verify(segundoNivel, never()).evictEntityData(Direccion.class);
+        verify(segundoNivel, never()).evictDefaultQueryRegion();
+        verify(marcasConsultas).invalidate(new String[] {"cliente", "direccion"}, sesion);
+        verify(sesion).close();
+        assertThat(meterRegistry.get("minegocio.cache.invalidacion").tag("sentido", "recibida")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void procesar_SinDirecciones_NoDeberiaTocarLaRegionDeDirecciones() {
+        prepararSegundoNivel();
+
+        bus.procesar("otro-nodo:7:42");
+
+        verify(segundoNivel).evictEntityData(Cliente.class, 42L);
+        verify(segundoNivel, never()).evictEntityData(eq(Direccion.class), any());
+        verify(segundoNivel, never()).evictEntityData(Direccion.class);
+        verify(marcasConsultas).invalidate(new String[] {"cliente"}, sesion);
+    }
+
+    @Test
+    void procesar_ConListasTruncadas_DeberiaVaciarLasRegiones() {
+        prepararSegundoNivel();
+
+        bus.procesar("otro-nodo:7:*:*");
+
+        verify(cacheDetalle).invalidarTodo();
+        verify(segundoNivel).evictEntityData(Cliente.class);
+        verify(segundoNivel).evictCollectionData(Cliente.class.getName() + ".direcciones");
+        verify(segundoNivel).evictEntityData(Direccion.class);
+    }
+
+    @Test
+    void procesar_DelMismoNodo_DeberiaIgnorarse() {
+        bus.procesar(bus.payload(7L, List.of(ClienteModificadoEvent.eliminado(7L, 42L))));
+
+        verifyNoInteractions(cacheBusqueda, indiceNgramas, indiceSugerencias, coalescedor, cacheDetalle,
+                entityManagerFactory);
+    }
+
+    @Test
+    void procesar_ConPayloadInvalido_NoDeberiaInvalidarNada() {
+        bus.procesar("7:42");
+        bus.procesar("otro-nodo:abc:42");
+        bus.procesar("otro-nodo:7:4x");
+        bus.procesar(null);
+
+        verifyNoInteractions(cacheBusqueda, indiceNgramas, indiceSugerencias, coalescedor, entityManagerFactory);
+    }
+
+    @Test
+    void payload_DeberiaOmitirCreadosYUnirDirecciones() {
+        String payload = bus.payload(7L, List.of(
+                ClienteModificadoEvent.creado(7L, 40L, "Ana", "0101010101"),
+                ClienteModificadoEvent.eliminado(7L, 42L).conDirecciones(List.of(5L, 6L)),
+                ClienteModificadoEvent.actualizado(7L, 43L, "Luis", "0202020202").conDirecciones(List.of())));
+
+        assertThat(payload).endsWith(":7:42,43:5,6");
+        assertThat(bus.payload(7L, List.of(ClienteModificadoEvent.creado(7L, 40L, "Ana", "0101010101"))))
+                .endsWith(":7:");
+    }
+
+    @Test
+    void payload_DemasiadoLargo_DeberiaUsarComodines() {
+        List<ClienteModificadoEvent> cambios = Collections.nCopies(1000,
+                ClienteModificadoEvent.eliminado(7L, 1234567890L).conDirecciones(List.of()));
+
+        String payload = bus.payload(7L, cambios);
+
+        assertThat(payload).endsWith(":7:*:*");
+        assertThat(payload.length()).isLessThanOrEqualTo(BusInvalidacionCache.LONGITUD_MAXIMA_PAYLOAD);
+    }
+
+    @Test
+    void onClienteModificado_EnPostgreSql_DeberiaEmitirNotify() {
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+
+        bus.onClienteModificado(ClienteModificadoEvent.eliminado(7L, 42L).conDirecciones(List.of(5L)));
+
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(RowCallbackHandler.class),
+                eq(BusInvalidacionCache.CANAL), endsWith(":7:42:5"));
+    }
+
+    @Test
+    void onClientesModificados_DeberiaEmitirUnSoloNotify() {
+        when(baseDatos.isPostgreSql()).thenReturn(true);
+
+        bus.onClientesModificados(new ClientesModificadosEvent(7L, List.of(
+                ClienteModificadoEvent.eliminado(7L, 42L).conDirecciones(List.of(5L)),
+                ClienteModificadoEvent.eliminado(7L, 43L).conDirecciones(List.of(6L)))));
+
+        verify(jdbcTemplate, times(1)).query(eq("SELECT pg_notify(?, ?)"), any(RowCallbackHandler.class),
+                eq(BusInvalidacionCache.CANAL), endsWith(":7:42,43:5,6"));
+    }
+
+    @Test
+    void onClienteModificado_SinPostgreSql_NoDeberiaNotificar() {
+        when(baseDatos.isPostgreSql()).thenReturn(false);
+
+        bus.onClienteModificado(ClienteModificadoEvent.eliminado(7L, 42L));
+        bus.start();
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(bus.isRunning()).isFalse();
+        assertThat(bus.isConectado()).isFalse();
+    }
+
+    private void prepararSegundoNivel() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(segundoNivel);
+        when(sessionFactory.openSession()).thenReturn(sesion);
+        when(segundoNivel.getTimestampsCache()).thenReturn(marcasConsultas);
+    }
+}
@@ -0,0 +1,77 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.event.ClienteModificadoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para la caché de JSON pre-serializado de clientes
+ */
+class CacheDetalleClientesTest {
+
+    private final CacheDetalleClientes cache =
+            new CacheDetalleClientes(new SimpleMeterRegistry(), true, 1024, Duration.ofMinutes(5));
+    private final AtomicInteger serializaciones = new AtomicInteger();
+
+    @Test
+    void obtener_DeberiaSerializarUnaVezHastaQueCambieElCliente() {
+        cache.obtener(1L, () -> json("v1"));
+        assertThat(cache.obtener(1L, () -> json("v2"))).isEqualTo(bytes("v1"));
+
+        cache.onClienteModificado(ClienteModificadoEvent.actualizado(1L, 1L, "Juan", "0102030405"));
+
+        assertThat(cache.obtener(1L, () -> json("v2"))).isEqualTo(bytes("v2"));
+        assertThat(serializaciones).hasValue(2);
+    }
+
+    @Test
+    void obtener_ConCambioDuranteLaLectura_NoDeberiaGuardarJsonViejo() throws Exception {
+        Thread lectura = new Thread(() -> cache.obtener(1L, () -> {
+            // El cambio se confirma mientras se serializa la versión anterior
+            Thread invalidacion = new Thread(() -> cache.invalidar(1L));
+            invalidacion.start();
+            esperar(50);
+            return json("viejo");
+        }));
+        lectura.start();
+        lectura.join();
+        esperar(100);
+
+        assertThat(cache.obtener(1L, () -> json("nuevo"))).isEqualTo(bytes("nuevo"));
+    }
+
+    @Test
+    void obtener_Deshabilitado_DeberiaSerializarSiempre() {
+        CacheDetalleClientes deshabilitada =
+                new CacheDetalleClientes(new SimpleMeterRegistry(), false, 1024, Duration.ofMinutes(5));
+
+        deshabilitada.obtener(1L, () -> json("v1"));
+        deshabilitada.obtener(1L, () -> json("v1"));
+
+        assertThat(serializaciones).hasValue(2);
+        assertThat(deshabilitada.tamano()).isZero();
+    }
+
+    private byte[] json(String version) {
+        serializaciones.incrementAndGet();
+        return bytes(version);
+    }
+
+    private static byte[] bytes(String version) {
+        return ("{\"version\":\"" + version + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void esperar(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.alquimiasoft.minegocio.service.cache;
+
+import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitarios para el coalescedor de lecturas concurrentes
+ */
+class CoalescedorLecturasTest {
+
+    private static final int HILOS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CoalescedorLecturas coalescedor = new CoalescedorLecturas(registry, true);
+    private final ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void ejecutar_LecturasIdenticasConcurrentes_DeberianCompartirUnaConsulta() throws Exception {
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(hilos.submit(() -> coalescedor.ejecutar("cliente", this::leerBloqueado, 1L)));
+        }
+        esperarCompartidas("cliente", HILOS - 1);
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("cliente-1");
+        }
+        assertThat(consultas).hasValue(1);
+        assertThat(contador("cliente", "ejecutada")).isEqualTo(1);
+        assertThat(coalescedor.lecturasEnCurso()).isZero();
+    }
+
+    @Test
+    void ejecutar_ConArgumentosDistintos_NoDeberiaCompartir() {
+        coalescedor.ejecutar("cliente", () -> "a", 1L);
+        coalescedor.ejecutar("cliente", () -> "b", 2L);
+        coalescedor.ejecutar("direcciones", () -> "c", 1L);
+
+        assertThat(contador("cliente", "ejecutada")).isEqualTo(2);
+        assertThat(contador("direcciones", "ejecutada")).isEqualTo(1);
+        assertThat(registry.find(CoalescedorLecturas.METRICA).tag("resultado", "compartida").counter()).isNull();
+    }
+
+    @Test
+    void ejecutar_ConError_DeberiaPropagarloATodosLosQueEsperan() throws Exception {
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            resultados.add(hilos.submit(() -> coalescedor.<String>ejecutar("cliente", () -> {
+                leerBloqueado();
+                throw ResourceNotFoundException.cliente(99L);
+            }, 99L)));
+        }
+        esperarCompartidas("cliente", 2);
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            assertThatThrownBy(() -> resultado.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(consultas).hasValue(1);
+    }
+
+    @Test
+    void soltarEnCurso_DespuesDeUnCambio_NuevasLecturasNoDeberianUnirseALaAnterior() throws Exception {
+        Future<String> anterior = hilos.submit(() -> coalescedor.ejecutar("cliente", this::leerBloqueado, 1L));
+        while (coalescedor.lecturasEnCurso() == 0) {
+            Thread.sleep(5);
+        }
+
+        coalescedor.soltarEnCurso();
+        String nueva = coalescedor.ejecutar("cliente", () -> "cliente-1-actualizado", 1L);
+        liberar.countDown();
+
+        assertThat(nueva).isEqualTo("cliente-1-actualizado");
+        assertThat(anterior.get(5, TimeUnit.SECONDS)).isEqualTo("cliente-1");
+        assertThat(contador("cliente", "ejecutada")).isEqualTo(2);
+    }
+
+    @Test
+    void ejecutar_Deshabilitado_DeberiaConsultarSiempre() {
+        CoalescedorLecturas deshabilitado = new CoalescedorLecturas(registry, false);
+
+        deshabilitado.ejecutar("cliente", consultas::incrementAndGet, 1L);
+        deshabilitado.ejecutar("cliente", consultas::incrementAndGet, 1L);
+
+        assertThat(consultas).hasValue(2);
+    }
+
+    private String leerBloqueado() {
+        consultas.incrementAndGet();
+        try {
+            assertThat(liberar.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "cliente-1";
+    }
+
+    private void esperarCompartidas(String operacion, int esperadas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (contador(operacion, "compartida") < esperadas && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(contador(operacion, "compartida")).isEqualTo(esperadas);
+    }
+
+    private double contador(String operacion, String resultado) {
+        Counter contador = registry.find(CoalescedorLecturas.METRICA)
+                .tags("operacion", operacion, "resultado", resultado).counter();
+        return contador == null ? 0 : contador.count();
+    }
+}
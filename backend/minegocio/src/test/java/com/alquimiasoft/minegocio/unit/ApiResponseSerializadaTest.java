@@ -0,0 +1,41 @@
+package com.alquimiasoft.minegocio.unit;
+
+import com.alquimiasoft.minegocio.dto.ApiResponse;
+import com.alquimiasoft.minegocio.dto.ApiResponseSerializada;
+import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para el sobre de ApiResponse alrededor de JSON pre-serializado
+ */
+class ApiResponseSerializadaTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void escribir_DeberiaProducirElMismoJsonQueApiResponse() throws Exception {
+        ClienteResponse cliente = new ClienteResponse(1L, 1L, "CEDULA", "0102030405", "José \"Pepe\" Núñez",
+                "jose@test.com", "0999999999", LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        ApiResponseSerializada sobre = new ApiResponseSerializada(objectMapper, "Cliente \"obtenido\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sobre.escribir(response, objectMapper.writeValueAsBytes(cliente));
+
+        JsonNode escrito = objectMapper.readTree(response.getContentAsByteArray());
+        ObjectNode esperado = (ObjectNode) objectMapper.readTree(
+                objectMapper.writeValueAsBytes(ApiResponse.success("Cliente \"obtenido\"", cliente)));
+        esperado.set("timestamp", escrito.get("timestamp"));
+        assertThat(escrito).isEqualTo(esperado);
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+    }
+}
@@ -1,5 +1,6 @@
 package com.alquimiasoft.minegocio.unit;
 
+import com.alquimiasoft.minegocio.config.BaseDatosInfo;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteCreateRequest;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteResponse;
 import com.alquimiasoft.minegocio.dto.cliente.ClienteUpdateRequest;
@@ -11,6 +12,12 @@ import com.alquimiasoft.minegocio.exception.ResourceNotFoundException;
 import com.alquimiasoft.minegocio.mapper.ClienteMapper;
 import com.alquimiasoft.minegocio.mapper.DireccionMapper;
 import com.alquimiasoft.minegocio.repository.ClienteRepository;
+import com.alquimiasoft.minegocio.repository.DireccionRepository;
+import com.alquimiasoft.minegocio.repository.projection.ClienteEmpresa;
+import com.alquimiasoft.minegocio.service.busqueda.CacheBusquedaClientes;
+import com.alquimiasoft.minegocio.service.busqueda.IndiceNgramasClientes;
+import com.alquimiasoft.minegocio.service.busqueda.PlanificadorBusqueda;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.alquimiasoft.minegocio.service.ClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,8 +25,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -38,12 +53,31 @@ class ClienteServiceUnitTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private DireccionRepository direccionRepository;
+
     @Mock
     private ClienteMapper clienteMapper;
 
     @Mock
     private DireccionMapper direccionMapper;
 
+    @Mock
+    private IndiceNgramasClientes indiceNgramas;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BaseDatosInfo baseDatos;
+
+    @Spy
+    private PlanificadorBusqueda planificador = new PlanificadorBusqueda(new SimpleMeterRegistry());
+
+    @Spy
+    private CacheBusquedaClientes cacheBusqueda =
+            new CacheBusquedaClientes(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -143,7 +177,7 @@ class ClienteServiceUnitTest {
     void obtenerClientePorId_ClienteExiste() {
         // Given
         Long clienteId = 1L;
-        when(clienteRepository.findByIdWithDirecciones(clienteId))
+        when(clienteRepository.findById(clienteId))
                 .thenReturn(Optional.of(clienteMock));
         when(clienteMapper.toResponse(clienteMock))
                 .thenReturn(responseEsperado);
@@ -155,7 +189,7 @@ class ClienteServiceUnitTest {
         assertThat(resultado).isNotNull();
         assertThat(resultado.getId()).isEqualTo(clienteId);
         
-        verify(clienteRepository).findByIdWithDirecciones(clienteId);
+        verify(clienteRepository).findById(clienteId);
         verify(clienteMapper).toResponse(clienteMock);
     }
 
@@ -164,7 +198,7 @@ class ClienteServiceUnitTest {
     void obtenerClientePorId_ClienteNoExiste() {
         // Given
         Long clienteId = 999L;
-        when(clienteRepository.findByIdWithDirecciones(clienteId))
+        when(clienteRepository.findById(clienteId))
                 .thenReturn(Optional.empty());
 
         // When & Then
@@ -172,34 +206,32 @@ class ClienteServiceUnitTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Cliente no encontrado");
 
-        verify(clienteRepository).findByIdWithDirecciones(clienteId);
+        verify(clienteRepository).findById(clienteId);
         verify(clienteMapper, never()).toResponse(any(Cliente.class));
     }
 
     @Test
-    @DisplayName("Buscar clientes - Lista todos los clientes")
+    @DisplayName("Buscar clientes - Lista la primera página de clientes")
     void buscarClientes_ListaTodos() {
         // Given
         Long empresaId = 1L;
         String busqueda = "";
-        List<Cliente> clientesEncontrados = Arrays.asList(clienteMock);
         List<ClienteResponse> responsesEsperados = Arrays.asList(responseEsperado);
+        Pageable listado = PageRequest.of(0, 20, Sort.by("nombres", "id"));
 
-        when(clienteRepository.findByEmpresaIdWithDirecciones(empresaId))
-                .thenReturn(clientesEncontrados);
-        when(clienteMapper.toResponseListWithMatriz(clientesEncontrados))
-                .thenReturn(responsesEsperados);
+        when(clienteRepository.findResponsesByEmpresaId(empresaId, listado))
+                .thenReturn(new PageImpl<>(responsesEsperados, listado, 1));
 
         // When
-        List<ClienteResponse> resultado = clienteService.buscarClientes(empresaId, busqueda);
+        Page<ClienteResponse> resultado = clienteService.buscarClientes(empresaId, busqueda, PageRequest.of(0, 20));
 
         // Then
         assertThat(resultado).isNotNull();
-        assertThat(resultado).hasSize(1);
-        assertThat(resultado.get(0).getNombres()).isEqualTo("Juan Pérez");
+        assertThat(resultado.getContent()).hasSize(1);
+        assertThat(resultado.getContent().get(0).getNombres()).isEqualTo("Juan Pérez");
 
-        verify(clienteRepository).findByEmpresaIdWithDirecciones(empresaId);
-        verify(clienteMapper).toResponseListWithMatriz(clientesEncontrados);
+        verify(clienteRepository).findResponsesByEmpresaId(empresaId, listado);
+        verifyNoInteractions(clienteMapper);
     }
 
     @Test
@@ -240,15 +272,18 @@ class ClienteServiceUnitTest {
     void eliminarCliente_CasoExitoso() {
         // Given
         Long clienteId = 1L;
-        when(clienteRepository.findById(clienteId))
-                .thenReturn(Optional.of(clienteMock));
+        ClienteEmpresa clienteEmpresa = mock(ClienteEmpresa.class);
+        when(clienteEmpresa.getEmpresaId()).thenReturn(1L);
+        when(clienteRepository.findByIdIn(List.of(clienteId)))
+                .thenReturn(List.of(clienteEmpresa));
 
         // When
         clienteService.eliminarCliente(clienteId);
 
         // Then
-        verify(clienteRepository).findById(clienteId);
-        verify(clienteRepository).delete(clienteMock);
+        verify(clienteRepository).findByIdIn(List.of(clienteId));
+        verify(clienteRepository, never()).findById(any());
+        verify(clienteRepository).eliminarPorIds(List.of(clienteId));
     }
 
     @Test
@@ -256,15 +291,15 @@ class ClienteServiceUnitTest {
     void eliminarCliente_ClienteNoExiste() {
         // Given
         Long clienteId = 999L;
-        when(clienteRepository.findById(clienteId))
-                .thenReturn(Optional.empty());
+        when(clienteRepository.findByIdIn(List.of(clienteId)))
+                .thenReturn(List.of());
 
         // When & Then
         assertThatThrownBy(() -> clienteService.eliminarCliente(clienteId))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Cliente no encontrado");
 
-        verify(clienteRepository).findById(clienteId);
-        verify(clienteRepository, never()).delete(any(Cliente.class));
+        verify(clienteRepository).findByIdIn(List.of(clienteId));
+        verify(clienteRepository, never()).eliminarPorIds(any());
     }
 }
\ No newline at end of file
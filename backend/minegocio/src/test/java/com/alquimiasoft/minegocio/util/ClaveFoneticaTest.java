@@ -0,0 +1,45 @@
+package com.alquimiasoft.minegocio.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para el codificador fonético de nombres
+ */
+class ClaveFoneticaTest {
+
+    @Test
+    void codificar_DeberiaIgualarNombresQueSuenanIgual() {
+        assertThat(ClaveFonetica.codificar("ximena")).isEqualTo(ClaveFonetica.codificar("jimena"));
+        assertThat(ClaveFonetica.codificar("gonzales")).isEqualTo(ClaveFonetica.codificar("gonzalez"));
+        assertThat(ClaveFonetica.codificar("vasquez")).isEqualTo(ClaveFonetica.codificar("bazques"));
+        assertThat(ClaveFonetica.codificar("hernandez")).isEqualTo(ClaveFonetica.codificar("ernandes"));
+        assertThat(ClaveFonetica.codificar("yepez")).isEqualTo(ClaveFonetica.codificar("llepes"));
+        assertThat(ClaveFonetica.codificar("guillermo")).isEqualTo(ClaveFonetica.codificar("guiyermo"));
+    }
+
+    @Test
+    void codificar_DeberiaDistinguirNombresDiferentes() {
+        assertThat(ClaveFonetica.codificar("ana")).isNotEqualTo(ClaveFonetica.codificar("ane"));
+        assertThat(ClaveFonetica.codificar("gema")).isNotEqualTo(ClaveFonetica.codificar("gama"));
+        assertThat(ClaveFonetica.codificar("rey")).isEqualTo("REI");
+    }
+
+    @Test
+    void claves_DeberiaCodificarCadaPalabraNormalizada() {
+        assertThat(ClaveFonetica.claves("Ximena González S.A.")).containsExactly("JIMENA", "GONSALES");
+        assertThat(ClaveFonetica.claves("0102030405")).isEmpty();
+        assertThat(ClaveFonetica.claves(null)).isEmpty();
+    }
+
+    @Test
+    void codificar_ConXCercaDelLimite_NoDeberiaSuperarLaLongitudMaxima() {
+        // 29 códigos y luego la x de medio de palabra, que agrega K y S
+        String palabra = "ab".repeat(14) + "axo";
+
+        String clave = ClaveFonetica.codificar(palabra);
+
+        assertThat(clave).hasSize(ClaveFonetica.LONGITUD_MAXIMA).endsWith("AK");
+    }
+}
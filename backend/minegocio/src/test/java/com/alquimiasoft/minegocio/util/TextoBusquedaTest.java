@@ -0,0 +1,34 @@
+package com.alquimiasoft.minegocio.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios para la normalización de criterios de búsqueda
+ */
+class TextoBusquedaTest {
+
+    @Test
+    void normalizar_DeberiaPlegarTildesEnieYPuntuacion() {
+        assertThat(TextoBusqueda.normalizar("  Núñez-Peña,   María ")).isEqualTo("nunez pena maria");
+        assertThat(TextoBusqueda.normalizar("GÜELL S.A.")).isEqualTo("guell s a");
+        assertThat(TextoBusqueda.normalizar("0102030405")).isEqualTo("0102030405");
+        assertThat(TextoBusqueda.normalizar(null)).isEmpty();
+    }
+
+    @Test
+    void patrones_DeberianUsarElTextoNormalizado() {
+        assertThat(TextoBusqueda.patronContiene("Peña")).isEqualTo("%pena%");
+        assertThat(TextoBusqueda.patronPrefijo("Ñ_")).isEqualTo("n%");
+        assertThat(TextoBusqueda.escaparLike("100%_a")).isEqualTo("100\\%\\_a");
+    }
+
+    @Test
+    void patronesIdentificacion_DeberianConservarElTextoEnMinusculas() {
+        assertThat(TextoBusqueda.identificacion(" 0912-ABC ")).isEqualTo("0912-abc");
+        assertThat(TextoBusqueda.patronIdentificacion("09_1%")).isEqualTo("%09\\_1\\%%");
+        assertThat(TextoBusqueda.prefijoIdentificacion("P-01")).isEqualTo("p-01%");
+        assertThat(TextoBusqueda.identificacion(null)).isEmpty();
+    }
+}
@@ -6,7 +6,7 @@ import ClientForm from './components/ClientForm';
 import ClientTable from './components/ClientTable';
 import AddressPanel from './components/AddressPanel';
 import {
-  searchClients, createClient, updateClient, deleteClient,
+  searchClients, listClients, createClient, updateClient, deleteClient,
   createAddress, listAddresses, listAdicionales, getMatriz
 } from './api';
 
@@ -19,6 +19,7 @@ export default function App() {
   const [adicionales, setAdicionales] = useState([]);
   const [matriz, setMatriz] = useState(null);
   const [lastSearch, setLastSearch] = useState({ empresaId: '', busqueda: '' });
+  const [nextCursor, setNextCursor] = useState(null);
   const [toast, setToast] = useState('');
 
   const notify = (msg) => {
@@ -30,16 +31,39 @@ export default function App() {
     try {
       setLoading(true);
       setLastSearch({ empresaId, busqueda });
+      if (!busqueda?.trim()) {
+        // Sin criterio: listado por cursor para poder seguir cargando
+        const response = await listClients(empresaId);
+        setResults(response?.data?.contenido || []);
+        setNextCursor(response?.data?.siguienteCursor || null);
+        return;
+      }
       const response = await searchClients(empresaId, busqueda);
       console.log('API Response:', response); // Para debug
       
       // La API devuelve { success, message, data, timestamp }
       const clientes = response?.data || [];
       setResults(Array.isArray(clientes) ? clientes : []);
+      setNextCursor(null);
     } catch (e) {
       console.error(e);
       notify(`Error buscando: ${e.message}`);
       setResults([]); // Limpiar resultados en caso de error
+      setNextCursor(null);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoading(true);
+      const response = await listClients(lastSearch.empresaId, nextCursor);
+      setResults(prev => [...prev, ...(response?.data?.contenido || [])]);
+      setNextCursor(response?.data?.siguienteCursor || null);
+    } catch (e) {
+      notify(`Error cargando más clientes: ${e.message}`);
     } finally {
       setLoading(false);
     }
@@ -158,6 +182,7 @@ export default function App() {
             onView={(c) => openAddresses(c)}
             onEdit={(c) => setEditing(c)}
             onDelete={(c) => removeClient(c)}
+            onLoadMore={nextCursor ? loadMore : null}
           />
 
           {viewing && (
@@ -14,8 +14,16 @@ async function http(method, url, body) {
 }
 
 // ---- Clientes ----
-export const searchClients = (empresaId, busqueda) =>
-  http('GET', `/clientes/buscar?empresaId=${encodeURIComponent(empresaId)}${busqueda ? `&busqueda=${encodeURIComponent(busqueda)}`:''}`);
+// Paginado en el backend (20 por defecto, máximo 100); el total viaja en la cabecera X-Total-Count
+export const searchClients = (empresaId, busqueda, page = 0, size = 20) =>
+  http('GET', `/clientes/buscar?empresaId=${encodeURIComponent(empresaId)}${busqueda ? `&busqueda=${encodeURIComponent(busqueda)}`:''}&page=${page}&size=${size}`);
+
+// Scroll infinito: pasar el siguienteCursor de la respuesta anterior para la página siguiente
+export const listClients = (empresaId, cursor, size = 20) =>
+  http('GET', `/clientes?empresaId=${encodeURIComponent(empresaId)}&size=${size}${cursor ? `&cursor=${encodeURIComponent(cursor)}`:''}`);
+
+export const suggestClients = (empresaId, prefijo, limite = 8) =>
+  http('GET', `/clientes/sugerencias?empresaId=${encodeURIComponent(empresaId)}&prefijo=${encodeURIComponent(prefijo)}&limite=${limite}`);
 
 export const getClientById = (clienteId) =>
   http('GET', `/clientes/${clienteId}`);
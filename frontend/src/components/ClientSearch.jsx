@@ -1,8 +1,25 @@
-import React, { useState } from 'react';
+import React, { useEffect, useState } from 'react';
+import { suggestClients } from '../api';
 
 export default function ClientSearch({ onSearch }) {
   const [empresaId, setEmpresaId] = useState('');
   const [busqueda, setBusqueda] = useState('');
+  const [sugerencias, setSugerencias] = useState([]);
+
+  // Autocompletado liviano: solo pide nombres/identificaciones, no clientes completos
+  useEffect(() => {
+    const prefijo = busqueda.trim();
+    if (!empresaId || prefijo.length < 2) {
+      setSugerencias([]);
+      return undefined;
+    }
+    const timer = setTimeout(() => {
+      suggestClients(empresaId, prefijo)
+        .then((resp) => setSugerencias(resp?.data || []))
+        .catch(() => setSugerencias([]));
+    }, 200);
+    return () => clearTimeout(timer);
+  }, [empresaId, busqueda]);
 
   const submit = (e) => {
     e.preventDefault();
@@ -19,7 +36,12 @@ export default function ClientSearch({ onSearch }) {
       </div>
       <div className="row">
         <label>Criterio</label>
-        <input value={busqueda} onChange={(e)=>setBusqueda(e.target.value)} placeholder="cédula / nombre (opcional)"/>
+        <input value={busqueda} onChange={(e)=>setBusqueda(e.target.value)} placeholder="cédula / nombre (opcional)" list="sugerencias-clientes"/>
+        <datalist id="sugerencias-clientes">
+          {sugerencias.map((s)=>(
+            <option key={`${s.tipo}-${s.id}`} value={s.texto} />
+          ))}
+        </datalist>
       </div>
       <button className="btn primary" type="submit">Buscar</button>
     </form>
@@ -1,6 +1,6 @@
 import React from 'react';
 
-export default function ClientTable({ data, onView, onEdit, onDelete }) {
+export default function ClientTable({ data, onView, onEdit, onDelete, onLoadMore }) {
   if (!data?.length) {
     return <div className="card muted">Sin resultados</div>;
   }
@@ -37,6 +37,9 @@ export default function ClientTable({ data, onView, onEdit, onDelete }) {
           </tbody>
         </table>
       </div>
+      {onLoadMore && (
+        <button className="btn" onClick={onLoadMore}>Cargar más</button>
+      )}
     </div>
   );
 }